@@ -0,0 +1,298 @@
+package com.mygdx.project_four;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.g2d.SpriteCache;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.maps.MapGroupLayer;
+import com.badlogic.gdx.maps.MapLayer;
+import com.badlogic.gdx.maps.MapLayers;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TiledMapImageLayer;
+import com.badlogic.gdx.maps.tiled.TiledMapTile;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.IntArray;
+
+/*
+Input: Void
+Output: Void
+Purpose: Draws a tiled map that never changes without building the tiles again every frame. Each tile layer is
+cut into square chunks of tiles and every chunk is put into a SpriteCache once when the renderer is made, image
+layers become a chunk of their own. Drawing a frame is then one cached draw call per chunk the camera can see,
+in the same layer order and with the same flips and rotations as OrthogonalTiledMapRenderer. Animated tiles
+are cached on the frame they show when the map is baked, and turning a layer off still hides its chunks
+*/
+public class CachedTiledMapRenderer implements Disposable {
+
+    public static final int DEFAULT_CHUNK_TILES = 16;    //Chunks are this many tiles wide and high
+
+    private static final int FLOATS_PER_VERTEX = 5;      //x, y, colour, u, v
+    private static final int FLOATS_PER_TILE = 6 * FLOATS_PER_VERTEX;    //Two triangles, no indices
+
+    /*
+    Corners of the quad being baked, in the order SpriteBatch uses them
+     */
+    private static final int X1 = 0, Y1 = 1, C1 = 2, U1 = 3, V1 = 4;
+    private static final int X2 = 5, Y2 = 6, C2 = 7, U2 = 8, V2 = 9;
+    private static final int X3 = 10, Y3 = 11, C3 = 12, U3 = 13, V3 = 14;
+    private static final int X4 = 15, Y4 = 16, C4 = 17, U4 = 18, V4 = 19;
+
+    private final SpriteCache cache;
+    private final int chunkTiles;
+
+    /*
+    Chunks in the order they are drawn, with their cache, the layer they came from and the box around
+    everything in them
+     */
+    private final IntArray chunkCache = new IntArray();
+    private final Array<MapLayer> chunkLayer = new Array<>();
+    private final FloatArray chunkBounds = new FloatArray();    //x, y, width, height per chunk
+
+    private final ViewCuller viewCuller = new ViewCuller();      //Counts the chunks drawn and culled
+    private final float[] quad = new float[20];
+    private final float[] triangles = new float[FLOATS_PER_TILE];
+    private float minX, minY, maxX, maxY;    //Box of the chunk being baked
+
+    /*
+    Input: Map
+    Output: Void
+    Purpose: Bakes the map with chunks of DEFAULT_CHUNK_TILES tiles
+    */
+    public CachedTiledMapRenderer(TiledMap map) { this(map, DEFAULT_CHUNK_TILES); }
+
+    /*
+    Input: Map, Chunk width and height in tiles
+    Output: Void
+    Purpose: Bakes every tile and image layer of the map into the cache, the map can't be changed after this
+    */
+    public CachedTiledMapRenderer(TiledMap map, int chunkTiles) {
+        this.chunkTiles = chunkTiles;
+        cache = new SpriteCache(Math.max(1, countImages(map.getLayers())), false);
+        bakeLayers(map.getLayers());
+    }
+
+    /*
+    Input: Camera
+    Output: Void
+    Purpose: Draws the chunks of visible layers that overlap the camera's view, blended the same as SpriteBatch
+    */
+    public void render(OrthographicCamera camera) {
+        viewCuller.begin(camera);
+        Gdx.gl.glEnable(GL20.GL_BLEND);
+        Gdx.gl.glBlendFunc(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
+        cache.setProjectionMatrix(camera.combined);
+        cache.begin();
+        for (int chunk = 0; chunk < chunkCache.size; chunk++) {
+            if (!isLayerVisible(chunkLayer.get(chunk))) { continue; }
+            int bounds = chunk * 4;
+            if (viewCuller.isVisible(chunkBounds.get(bounds), chunkBounds.get(bounds + 1),
+                    chunkBounds.get(bounds + 2), chunkBounds.get(bounds + 3))) {
+                cache.draw(chunkCache.get(chunk));
+            }
+        }
+        cache.end();
+        Gdx.gl.glDisable(GL20.GL_BLEND);
+    }
+
+    /*
+    Input: Layers
+    Output: Number of tiles and images in them
+    Purpose: Lets the cache be made big enough before anything is added
+    */
+    private static int countImages(MapLayers layers) {
+        int count = 0;
+        for (MapLayer layer : layers) {
+            if (layer instanceof MapGroupLayer) { count += countImages(((MapGroupLayer) layer).getLayers()); }
+            else if (layer instanceof TiledMapImageLayer) { count++; }
+            else if (layer instanceof TiledMapTileLayer) {
+                TiledMapTileLayer tileLayer = (TiledMapTileLayer) layer;
+                for (int y = 0; y < tileLayer.getHeight(); y++) {
+                    for (int x = 0; x < tileLayer.getWidth(); x++) {
+                        TiledMapTileLayer.Cell cell = tileLayer.getCell(x, y);
+                        if (cell != null && cell.getTile() != null) { count++; }
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+    /*
+    Input: Layers
+    Output: Void
+    Purpose: Bakes the layers in the order OrthogonalTiledMapRenderer draws them, going into groups
+    */
+    private void bakeLayers(MapLayers layers) {
+        for (MapLayer layer : layers) {
+            if (layer instanceof MapGroupLayer) { bakeLayers(((MapGroupLayer) layer).getLayers()); }
+            else if (layer instanceof TiledMapTileLayer) { bakeTileLayer((TiledMapTileLayer) layer); }
+            else if (layer instanceof TiledMapImageLayer) { bakeImageLayer((TiledMapImageLayer) layer); }
+        }
+    }
+
+    /*
+    Input: Tile layer
+    Output: Void
+    Purpose: Puts each chunk of the layer that has a tile into a cache of its own
+    */
+    private void bakeTileLayer(TiledMapTileLayer layer) {
+        float color = Color.toFloatBits(1, 1, 1, layer.getOpacity());
+        float offsetX = layer.getRenderOffsetX();
+        float offsetY = -layer.getRenderOffsetY();    //Tiled offsets go down
+        for (int chunkY = 0; chunkY < layer.getHeight(); chunkY += chunkTiles) {
+            for (int chunkX = 0; chunkX < layer.getWidth(); chunkX += chunkTiles) {
+                beginChunk();
+                int lastY = Math.min(chunkY + chunkTiles, layer.getHeight());
+                int lastX = Math.min(chunkX + chunkTiles, layer.getWidth());
+                for (int y = chunkY; y < lastY; y++) {
+                    for (int x = chunkX; x < lastX; x++) {
+                        TiledMapTileLayer.Cell cell = layer.getCell(x, y);
+                        if (cell == null || cell.getTile() == null) { continue; }
+                        addTile(cell, x * layer.getTileWidth() + offsetX, y * layer.getTileHeight() + offsetY, color);
+                    }
+                }
+                endChunk(layer);
+            }
+        }
+    }
+
+    /*
+    Input: Image layer
+    Output: Void
+    Purpose: Puts the image into a cache of its own
+    */
+    private void bakeImageLayer(TiledMapImageLayer layer) {
+        TextureRegion region = layer.getTextureRegion();
+        if (region == null) { return; }
+        beginChunk();
+        setQuad(region, layer.getX(), layer.getY(), Color.toFloatBits(1, 1, 1, layer.getOpacity()));
+        addQuad(region);
+        endChunk(layer);
+    }
+
+    /*
+    Input: Cell, Bottom left corner of its place in the layer, Colour
+    Output: Void
+    Purpose: Adds the tile of the cell flipped and turned the way the cell says
+    */
+    private void addTile(TiledMapTileLayer.Cell cell, float x, float y, float color) {
+        TiledMapTile tile = cell.getTile();
+        TextureRegion region = tile.getTextureRegion();
+        setQuad(region, x + tile.getOffsetX(), y + tile.getOffsetY(), color);
+
+        float temp;
+        if (cell.getFlipHorizontally()) {
+            temp = quad[U1]; quad[U1] = quad[U3]; quad[U3] = temp;
+            temp = quad[U2]; quad[U2] = quad[U4]; quad[U4] = temp;
+        }
+        if (cell.getFlipVertically()) {
+            temp = quad[V1]; quad[V1] = quad[V2]; quad[V2] = temp;
+            temp = quad[V3]; quad[V3] = quad[V4]; quad[V4] = temp;
+        }
+        switch (cell.getRotation()) {
+            case TiledMapTileLayer.Cell.ROTATE_90:
+                temp = quad[V1]; quad[V1] = quad[V2]; quad[V2] = quad[V3]; quad[V3] = quad[V4]; quad[V4] = temp;
+                temp = quad[U1]; quad[U1] = quad[U2]; quad[U2] = quad[U3]; quad[U3] = quad[U4]; quad[U4] = temp;
+                break;
+            case TiledMapTileLayer.Cell.ROTATE_180:
+                temp = quad[U1]; quad[U1] = quad[U3]; quad[U3] = temp;
+                temp = quad[U2]; quad[U2] = quad[U4]; quad[U4] = temp;
+                temp = quad[V1]; quad[V1] = quad[V3]; quad[V3] = temp;
+                temp = quad[V2]; quad[V2] = quad[V4]; quad[V4] = temp;
+                break;
+            case TiledMapTileLayer.Cell.ROTATE_270:
+                temp = quad[V1]; quad[V1] = quad[V4]; quad[V4] = quad[V3]; quad[V3] = quad[V2]; quad[V2] = temp;
+                temp = quad[U1]; quad[U1] = quad[U4]; quad[U4] = quad[U3]; quad[U3] = quad[U2]; quad[U2] = temp;
+                break;
+        }
+        addQuad(region);
+    }
+
+    /*
+    Input: Region, Bottom left corner, Colour
+    Output: Void
+    Purpose: Fills the quad with the region at its own size and grows the box of the chunk around it
+    */
+    private void setQuad(TextureRegion region, float x, float y, float color) {
+        float x2 = x + region.getRegionWidth();
+        float y2 = y + region.getRegionHeight();
+        quad[X1] = x;  quad[Y1] = y;  quad[C1] = color; quad[U1] = region.getU();  quad[V1] = region.getV2();
+        quad[X2] = x;  quad[Y2] = y2; quad[C2] = color; quad[U2] = region.getU();  quad[V2] = region.getV();
+        quad[X3] = x2; quad[Y3] = y2; quad[C3] = color; quad[U3] = region.getU2(); quad[V3] = region.getV();
+        quad[X4] = x2; quad[Y4] = y;  quad[C4] = color; quad[U4] = region.getU2(); quad[V4] = region.getV2();
+        minX = Math.min(minX, x);
+        minY = Math.min(minY, y);
+        maxX = Math.max(maxX, x2);
+        maxY = Math.max(maxY, y2);
+    }
+
+    /*
+    Input: Region the quad was filled from
+    Output: Void
+    Purpose: Adds the quad to the cache as the two triangles SpriteBatch would draw, corners 1 2 3 and 3 4 1
+    */
+    private void addQuad(TextureRegion region) {
+        System.arraycopy(quad, X1, triangles, 0, 15);
+        System.arraycopy(quad, X3, triangles, 15, 10);
+        System.arraycopy(quad, X1, triangles, 25, 5);
+        cache.add(region.getTexture(), triangles, 0, FLOATS_PER_TILE);
+    }
+
+    /*
+    Input: Void
+    Output: Void
+    Purpose: Starts a new cache and an empty box around it
+    */
+    private void beginChunk() {
+        cache.beginCache();
+        minX = minY = Float.MAX_VALUE;
+        maxX = maxY = -Float.MAX_VALUE;
+    }
+
+    /*
+    Input: Layer of the chunk
+    Output: Void
+    Purpose: Closes the cache and keeps it if anything was added to it
+    */
+    private void endChunk(MapLayer layer) {
+        int id = cache.endCache();
+        if (maxX < minX) { return; }
+        chunkCache.add(id);
+        chunkLayer.add(layer);
+        chunkBounds.add(minX, minY, maxX - minX);
+        chunkBounds.add(maxY - minY);
+    }
+
+    /*
+    Input: Layer
+    Output: Boolean
+    Purpose: A layer is only drawn if it and every group it is in are visible
+    */
+    private static boolean isLayerVisible(MapLayer layer) {
+        for (; layer != null; layer = layer.getParent()) {
+            if (!layer.isVisible()) { return false; }
+        }
+        return true;
+    }
+
+    /*
+    Input: Void
+    Output: Chunks drawn or culled in the last render
+    Purpose: Shows how much of the map the camera is skipping
+    */
+    public int getChunksDrawn() { return viewCuller.getSubmitted(); }
+    public int getChunksCulled() { return viewCuller.getCulled(); }
+
+    /*
+    Input: Void
+    Output: Void
+    Purpose: Gets rid of the cache, the map's textures still belong to the map
+    */
+    @Override
+    public void dispose() { cache.dispose(); }
+}
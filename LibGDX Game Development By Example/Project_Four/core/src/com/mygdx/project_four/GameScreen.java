@@ -1,6 +1,7 @@
 package com.mygdx.project_four;
 
 import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Input;
 import com.badlogic.gdx.InputAdapter;
 import com.badlogic.gdx.ScreenAdapter;
 import com.badlogic.gdx.audio.Music;
@@ -12,18 +13,20 @@ import com.badlogic.gdx.graphics.OrthographicCamera;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.Sprite;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
-import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
 import com.badlogic.gdx.maps.tiled.TiledMap;
-import com.badlogic.gdx.maps.tiled.renderers.OrthogonalTiledMapRenderer;
 import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.physics.box2d.Body;
-import com.badlogic.gdx.physics.box2d.Box2DDebugRenderer;
+import com.badlogic.gdx.physics.box2d.BodyDef;
+import com.badlogic.gdx.physics.box2d.CircleShape;
 import com.badlogic.gdx.physics.box2d.Contact;
 import com.badlogic.gdx.physics.box2d.ContactImpulse;
 import com.badlogic.gdx.physics.box2d.ContactListener;
 import com.badlogic.gdx.physics.box2d.Fixture;
 import com.badlogic.gdx.physics.box2d.Manifold;
+import com.badlogic.gdx.physics.box2d.PolygonShape;
+import com.badlogic.gdx.physics.box2d.Shape;
+import com.badlogic.gdx.physics.box2d.Transform;
 import com.badlogic.gdx.physics.box2d.World;
 import com.badlogic.gdx.physics.box2d.WorldManifold;
 import com.badlogic.gdx.utils.Array;
@@ -42,8 +45,6 @@ public class GameScreen extends ScreenAdapter {
     private static final float WORLD_WIDTH = 960;
     private static final float WORLD_HEIGHT = 544;
     private static final float UNITS_PER_METER = 16;
-    private static float UNIT_WIDTH = WORLD_WIDTH / UNITS_PER_METER;
-    private static float UNIT_HEIGHT = WORLD_HEIGHT / UNITS_PER_METER;
 
     //================================= Data for Arc ===============================================
     //Sets bound on how far it can be pulled
@@ -68,8 +69,16 @@ public class GameScreen extends ScreenAdapter {
 
     //World from the Box2D engine
     private World world;
-    //Draws wireframe in the Box2D engine
-    private Box2DDebugRenderer debugRenderer = new Box2DDebugRenderer();
+    private static final Color STATIC_BODY_COLOR = new Color(0.5f, 0.9f, 0.5f, 1);
+    private static final Color MOVING_BODY_COLOR = new Color(0.9f, 0.7f, 0.7f, 1);
+    private static final Color SLEEPING_BODY_COLOR = new Color(0.6f, 0.6f, 0.6f, 1);
+    //Wireframes of the Box2D bodies and the aim, 1 turns it on and off
+    private final DebugOverlay debugOverlay = new DebugOverlay();
+    private int debugFrames = 0;    //Frames since the culling counts were logged
+    private final Array<Body> debugBodies = new Array<>();
+    private final Vector2 debugVertex = new Vector2();
+    private final Vector2 debugFirstVertex = new Vector2();
+    private final Vector2 debugPreviousVertex = new Vector2();
     private NuttyContactListener nuttyContactListener = new NuttyContactListener();
     //
     private Body body;
@@ -77,12 +86,11 @@ public class GameScreen extends ScreenAdapter {
     //Set up what we look through
     private Viewport viewport;
     private Camera camera;
-    private OrthographicCamera box2dCam;
 
 
     //Set up items used for drawing
     private SpriteBatch batch = new SpriteBatch();
-    private ShapeRenderer shapeRenderer = new ShapeRenderer();
+    private final ViewCuller viewCuller = new ViewCuller();    //Skips sprites the camera can't see
 
     //The wrapper we use to keep track of things
     private final ProjectFour projectFour;
@@ -93,7 +101,7 @@ public class GameScreen extends ScreenAdapter {
 
     //Tiled
     private TiledMap tiledMap;
-    private OrthogonalTiledMapRenderer orthogonalTiledMapRenderer;
+    private CachedTiledMapRenderer tiledMapRenderer;    //The map baked in chunks
 
     /*
     Input: RaumGame
@@ -110,6 +118,17 @@ public class GameScreen extends ScreenAdapter {
     @Override
     public void resize(int width, int height){viewport.update(width, height);}
 
+    /*
+    Input: Void
+    Output: Void
+    Purpose: Gets rid of the baked map and the wireframe renderer if it was ever made
+    */
+    @Override
+    public void dispose(){
+        if(tiledMapRenderer != null){tiledMapRenderer.dispose();}
+        debugOverlay.dispose();
+    }
+
     /*
     Input: Void
     Output: Void
@@ -159,8 +178,6 @@ public class GameScreen extends ScreenAdapter {
 
         viewport = new StretchViewport(WORLD_WIDTH, WORLD_HEIGHT, camera);
         viewport.apply(true);
-
-        box2dCam = new OrthographicCamera(UNIT_WIDTH, UNIT_HEIGHT);
     }
 
     /*
@@ -181,8 +198,7 @@ public class GameScreen extends ScreenAdapter {
     */
     public void showObjects(){
         tiledMap = projectFour.getAssetManager().get("map.tmx");
-        orthogonalTiledMapRenderer = new OrthogonalTiledMapRenderer(tiledMap, batch);
-        orthogonalTiledMapRenderer.setView((OrthographicCamera) camera);
+        tiledMapRenderer = new CachedTiledMapRenderer(tiledMap);    //Baked once, only the parts the camera sees are drawn
 
         //Creates the objects from tiled map to be draw and interacted in the world
         TiledObjectBodyBuilder.buildBuildingBodies(tiledMap, world);
@@ -278,8 +294,9 @@ public class GameScreen extends ScreenAdapter {
     Purpose: Central update function, updates player, camera, and collisons
     */
     public void update(float delta){
+        //Turns the wireframes on and off
+        if(Gdx.input.isKeyJustPressed(Input.Keys.NUM_1)){debugOverlay.toggle();}
         updateBody(delta);
-        updateCamera();
         clearDeadBodies();
         updateSpritePositions();
     }
@@ -320,17 +337,6 @@ public class GameScreen extends ScreenAdapter {
         world.step(delta, 6, 2);
     }
 
-    /*
-    Input: Void
-    Output: Void
-    Purpose: Updates the camera position
-    */
-    public void updateCamera(){
-        //Updates the camera that is looking at the tiled in data
-        box2dCam.position.set(UNIT_WIDTH / 2, UNIT_HEIGHT / 2, 0);
-        box2dCam.update();
-    }
-
     /*
     Input: Void
     Output: Void
@@ -344,37 +350,92 @@ public class GameScreen extends ScreenAdapter {
     /*
     Input: Void
     Output: Void
-    Purpose: Draws everything
+    Purpose: Draws everything, sprites that have flown out of the camera's view are not sent to the batch
     */
     public void draw(){
         batch.setProjectionMatrix(camera.projection);
         batch.setTransformMatrix(camera.view);
-        orthogonalTiledMapRenderer.render();
+        tiledMapRenderer.render((OrthographicCamera) camera);
         batch.begin();
+        viewCuller.begin((OrthographicCamera) camera);
         for (Sprite sprite : sprites.values()) {
-            sprite.draw(batch);
+            drawIfVisible(sprite);
         }
-        squirrel.draw(batch);
-        staticAcorn.draw(batch);
+        drawIfVisible(squirrel);
+        drawIfVisible(staticAcorn);
         batch.end();
     }
 
+    /*
+    Input: Sprite
+    Output: Void
+    Purpose: Draws the sprite if its bounds, rotation included, are in the camera's view
+    */
+    private void drawIfVisible(Sprite sprite){
+        if (viewCuller.isVisible(sprite.getBoundingRectangle())) {
+            sprite.draw(batch);
+        }
+    }
+
     /*
     Input: Void
     Output: Void
-    Purpose: Draws wireframe
+    Purpose: Draws wireframe, the Box2D bodies and the aim are collected and drawn in one go with the same
+    camera as everything else. Nothing is done while the overlay is off, while it is on the culling counts
+    are logged once a second
     */
     public void drawDebug(){
-        debugRenderer.render(world, box2dCam.combined);
-        shapeRenderer.setProjectionMatrix(camera.projection);
-        shapeRenderer.setTransformMatrix(camera.view);
-        shapeRenderer.begin(ShapeRenderer.ShapeType.Line);
-        shapeRenderer.rect(anchor.x - 5, anchor.y - 5, 10, 10);
-        shapeRenderer.rect(firingPosition.x - 5, firingPosition.y - 5,
+        if(!debugOverlay.isEnabled()){return;}
+        if(++debugFrames >= 60){
+            debugFrames = 0;
+            Gdx.app.log("GameScreen", "Sprites submitted " + viewCuller.getSubmitted() + " culled " + viewCuller.getCulled()
+                    + ", tile chunks drawn " + tiledMapRenderer.getChunksDrawn() + " culled " + tiledMapRenderer.getChunksCulled());
+        }
+        addBodiesToDebugOverlay();
+        debugOverlay.setColor(Color.WHITE);
+        debugOverlay.rect(anchor.x - 5, anchor.y - 5, 10, 10);
+        debugOverlay.rect(firingPosition.x - 5, firingPosition.y - 5,
                 10, 10);
-        shapeRenderer.line(anchor.x, anchor.y, firingPosition.x,
+        debugOverlay.line(anchor.x, anchor.y, firingPosition.x,
                 firingPosition.y);
-        shapeRenderer.end();
+        debugOverlay.flush(camera.combined);
+    }
+
+    /*
+    Input: Void
+    Output: Void
+    Purpose: Adds the outline of every fixture in the world in screen units, coloured the way the Box2D
+    debug renderer colours them. Only circles and polygons are built by the loaders and bullets
+    */
+    private void addBodiesToDebugOverlay(){
+        world.getBodies(debugBodies);
+        for (Body body : debugBodies) {
+            if (body.getType() == BodyDef.BodyType.StaticBody) {debugOverlay.setColor(STATIC_BODY_COLOR);}
+            else if (!body.isAwake()) {debugOverlay.setColor(SLEEPING_BODY_COLOR);}
+            else {debugOverlay.setColor(MOVING_BODY_COLOR);}
+
+            Transform transform = body.getTransform();
+            for (Fixture fixture : body.getFixtureList()) {
+                Shape shape = fixture.getShape();
+                if (shape.getType() == Shape.Type.Circle) {
+                    CircleShape circle = (CircleShape) shape;
+                    transform.mul(debugVertex.set(circle.getPosition()));
+                    debugOverlay.circle(convertMetresToUnits(debugVertex.x), convertMetresToUnits(debugVertex.y),
+                            convertMetresToUnits(circle.getRadius()));
+                }
+                else if (shape.getType() == Shape.Type.Polygon) {
+                    PolygonShape polygon = (PolygonShape) shape;
+                    for (int i = 0; i < polygon.getVertexCount(); i++) {
+                        polygon.getVertex(i, debugVertex);
+                        transform.mul(debugVertex).scl(UNITS_PER_METER);
+                        if (i == 0) {debugFirstVertex.set(debugVertex);}
+                        else {debugOverlay.line(debugPreviousVertex.x, debugPreviousVertex.y, debugVertex.x, debugVertex.y);}
+                        debugPreviousVertex.set(debugVertex);
+                    }
+                    debugOverlay.line(debugPreviousVertex.x, debugPreviousVertex.y, debugFirstVertex.x, debugFirstVertex.y);
+                }
+            }
+        }
     }
 
     public class NuttyContactListener implements ContactListener{
@@ -0,0 +1,88 @@
+package com.packt.snake;
+
+/*
+Input: Void
+Output: Void
+Purpose: A bot that runs a breadth first search from the head over the free cells and takes the first step
+of the shortest path to the apple. If the apple can't be reached it falls back on the greedy bot. All of
+the search arrays are made once for the board size so a search creates no garbage, one bot must only be
+used by one thread
+*/
+public class BfsSnakeBot implements SnakeBot {
+
+    private final GreedySnakeBot fallback = new GreedySnakeBot();
+
+    /*
+    Search arrays, a cell was visited in this search if its stamp matches the search number, which saves
+    clearing the arrays before every search
+     */
+    private int[] queue = new int[0];
+    private int[] firstStep = new int[0];
+    private int[] visitedStamp = new int[0];
+    private int stamp = 0;
+
+    @Override
+    public int chooseTurn(SnakeSimulation simulation) {
+        int apple = simulation.getAppleCell();
+        if (apple == SnakeSimulation.NO_APPLE) { return fallback.chooseTurn(simulation); }
+        ensureCapacity(simulation.getColumns() * simulation.getRows());
+        nextStamp();
+
+        int head = simulation.getHeadCell();
+        int read = 0;
+        int write = 0;
+        visitedStamp[head] = stamp;
+
+        //The first ring of cells remembers which way the head has to go to reach them
+        for (int direction = SnakeSimulation.RIGHT; direction <= SnakeSimulation.DOWN; direction++) {
+            if (direction != simulation.getDirection() && !simulation.isLegalTurn(direction)) { continue; }
+            int cell = simulation.neighbour(head, direction);
+            if (visitedStamp[cell] == stamp || simulation.isOccupied(cell)) { continue; }
+            if (cell == apple) { return direction; }
+            visitedStamp[cell] = stamp;
+            firstStep[cell] = direction;
+            queue[write++] = cell;
+        }
+
+        //Every cell further out inherits the first step of the cell it was reached from
+        while (read < write) {
+            int cell = queue[read++];
+            for (int direction = SnakeSimulation.RIGHT; direction <= SnakeSimulation.DOWN; direction++) {
+                int next = simulation.neighbour(cell, direction);
+                if (visitedStamp[next] == stamp || simulation.isOccupied(next)) { continue; }
+                if (next == apple) { return firstStep[cell]; }
+                visitedStamp[next] = stamp;
+                firstStep[next] = firstStep[cell];
+                queue[write++] = next;
+            }
+        }
+        return fallback.chooseTurn(simulation);
+    }
+
+    /*
+    Input: Number of cells on the board
+    Output: Void
+    Purpose: Grows the search arrays if the bot is used on a bigger board
+    */
+    private void ensureCapacity(int cellCount) {
+        if (queue.length < cellCount) {
+            queue = new int[cellCount];
+            firstStep = new int[cellCount];
+            visitedStamp = new int[cellCount];
+            stamp = 0;
+        }
+    }
+
+    /*
+    Input: Void
+    Output: Void
+    Purpose: Moves to the next search number, clears the stamps if the counter wraps around
+    */
+    private void nextStamp() {
+        stamp++;
+        if (stamp == Integer.MAX_VALUE) {
+            for (int i = 0; i < visitedStamp.length; i++) { visitedStamp[i] = 0; }
+            stamp = 1;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.packt.snake;
+
+/*
+Input: Void
+Output: Void
+Purpose: A bot that steps onto the free neighbouring cell closest to the apple. It is very cheap but
+walks itself into dead ends, when every cell around the head is taken it keeps going and the game ends
+*/
+public class GreedySnakeBot implements SnakeBot {
+
+    @Override
+    public int chooseTurn(SnakeSimulation simulation) {
+        int head = simulation.getHeadCell();
+        int apple = simulation.getAppleCell();
+        int bestDirection = SnakeSimulation.NO_TURN;
+        int bestDistance = Integer.MAX_VALUE;
+        for (int direction = SnakeSimulation.RIGHT; direction <= SnakeSimulation.DOWN; direction++) {
+            if (direction != simulation.getDirection() && !simulation.isLegalTurn(direction)) { continue; }
+            int cell = simulation.neighbour(head, direction);
+            if (simulation.isOccupied(cell)) { continue; }
+            int distance = apple == SnakeSimulation.NO_APPLE ? 0 : simulation.distance(cell, apple);
+            if (distance < bestDistance) {
+                bestDistance = distance;
+                bestDirection = direction;
+            }
+        }
+        return bestDirection;
+    }
+}
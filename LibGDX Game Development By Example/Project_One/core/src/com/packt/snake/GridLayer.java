@@ -0,0 +1,92 @@
+package com.packt.snake;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.graphics.glutils.FrameBuffer;
+import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.utils.Disposable;
+
+/*
+Input: Void
+Output: Void
+Purpose: The background grid of the board. The grid never changes so the lines are drawn once into a
+frame buffer and every frame just draws that texture, it is only redrawn when the screen is resized
+*/
+class GridLayer implements Disposable {
+
+    private final float worldWidth;
+    private final float worldHeight;
+    private final int cellSize;
+
+    private final ShapeRenderer shapeRenderer = new ShapeRenderer();
+    private FrameBuffer frameBuffer;
+    private TextureRegion region;
+    private boolean visible = true;
+
+    /*
+    Input: World size and the size of one cell
+    Output: Void
+    Purpose: Sets up the layer, nothing is drawn until rebuild is called
+    */
+    GridLayer(float worldWidth, float worldHeight, int cellSize) {
+        this.worldWidth = worldWidth;
+        this.worldHeight = worldHeight;
+        this.cellSize = cellSize;
+    }
+
+    /*
+    Input: Size of the area the world is shown in, in screen pixels
+    Output: Void
+    Purpose: Draws the grid lines into a new frame buffer that matches the screen so the lines stay sharp
+    */
+    void rebuild(int pixelWidth, int pixelHeight) {
+        if (pixelWidth <= 0 || pixelHeight <= 0) { return; }    //Minimized window, keep the old grid
+        if (frameBuffer != null) { frameBuffer.dispose(); }
+        frameBuffer = new FrameBuffer(Pixmap.Format.RGBA8888, pixelWidth, pixelHeight, false);
+
+        frameBuffer.begin();
+        Gdx.gl.glClearColor(0, 0, 0, 0);
+        Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
+        shapeRenderer.setProjectionMatrix(new Matrix4().setToOrtho2D(0, 0, worldWidth, worldHeight));
+        shapeRenderer.begin(ShapeRenderer.ShapeType.Line);
+        for (int x = 0; x < worldWidth; x += cellSize) {
+            for (int y = 0; y < worldHeight; y += cellSize) {
+                shapeRenderer.rect(x, y, cellSize, cellSize);
+            }
+        }
+        shapeRenderer.end();
+        frameBuffer.end();
+
+        //Frame buffers are stored upside down
+        region = new TextureRegion(frameBuffer.getColorBufferTexture());
+        region.flip(false, true);
+    }
+
+    /*
+    Input: Batch
+    Output: Void
+    Purpose: Draws the cached grid over the whole world, must be called between batch begin and end
+    */
+    void draw(Batch batch) {
+        if (visible && region != null) { batch.draw(region, 0, 0, worldWidth, worldHeight); }
+    }
+
+    /*
+    Input: Void
+    Output: Void
+    Purpose: Shows or hides the grid
+    */
+    void toggle() { visible = !visible; }
+
+    boolean isVisible() { return visible; }
+
+    @Override
+    public void dispose() {
+        shapeRenderer.dispose();
+        if (frameBuffer != null) { frameBuffer.dispose(); }
+    }
+}
@@ -0,0 +1,104 @@
+package com.packt.snake;
+
+/*
+Input: Void
+Output: Void
+Purpose: Keeps one bit for every cell on the board that says if the snake is covering it. The bits are
+flipped as the head enters and the tail leaves a cell so checking a cell is a single bit test no matter
+how long the snake is. Next to the bits it keeps the list of free cells, a cell is swapped out of the
+list when covered and appended back when freed so a random free cell can be picked in O(1)
+*/
+class GridOccupancy {
+
+    private final long[] bits;  //64 cells are packed into every long
+    private final int cellCount;
+
+    /*
+    The free cells are stored in the front of freeCells, freeSlot remembers where each free cell is stored
+     */
+    private final int[] freeCells;
+    private final int[] freeSlot;
+    private int freeCount;
+
+    /*
+    Input: Number of cells on the board
+    Output: Void
+    Purpose: Creates an empty board
+    */
+    GridOccupancy(int cellCount) {
+        this.cellCount = cellCount;
+        bits = new long[(cellCount + 63) >>> 6];
+        freeCells = new int[cellCount];
+        freeSlot = new int[cellCount];
+        clearAll();
+    }
+
+    /*
+    Input: Void
+    Output: Int
+    Purpose: Gives the number of cells on the board
+    */
+    int getCellCount() { return cellCount; }
+
+    /*
+    Input: Packed cell
+    Output: Boolean
+    Purpose: Tells us if the cell is covered by the snake
+    */
+    boolean isSet(int cell) { return (bits[cell >>> 6] & (1L << cell)) != 0; }
+
+    /*
+    Input: Void
+    Output: Int
+    Purpose: Gives the number of cells the snake is not covering
+    */
+    int getFreeCount() { return freeCount; }
+
+    /*
+    Input: Index between 0 and getFreeCount() - 1
+    Output: Packed cell
+    Purpose: Gives one of the free cells, the order changes as cells are covered and freed
+    */
+    int getFreeCell(int index) { return freeCells[index]; }
+
+    /*
+    Input: Packed cell
+    Output: Void
+    Purpose: Marks the cell as covered and swaps it out of the free list with the last free cell
+    */
+    void set(int cell) {
+        if (isSet(cell)) { return; }
+        bits[cell >>> 6] |= 1L << cell;
+        int slot = freeSlot[cell];
+        int last = freeCells[--freeCount];
+        freeCells[slot] = last;
+        freeSlot[last] = slot;
+    }
+
+    /*
+    Input: Packed cell
+    Output: Void
+    Purpose: Marks the cell as empty and adds it to the end of the free list
+    */
+    void clear(int cell) {
+        if (!isSet(cell)) { return; }
+        bits[cell >>> 6] &= ~(1L << cell);
+        freeCells[freeCount] = cell;
+        freeSlot[cell] = freeCount;
+        freeCount++;
+    }
+
+    /*
+    Input: Void
+    Output: Void
+    Purpose: Marks every cell as empty
+    */
+    void clearAll() {
+        for (int i = 0; i < bits.length; i++) { bits[i] = 0; }
+        for (int cell = 0; cell < cellCount; cell++) {
+            freeCells[cell] = cell;
+            freeSlot[cell] = cell;
+        }
+        freeCount = cellCount;
+    }
+}
@@ -0,0 +1,90 @@
+package com.packt.snake;
+
+/*
+Input: Void
+Output: Void
+Purpose: Stores the snake's body as a ring buffer of packed cell coordinates. Index 0 is the tail end of
+the snake and index size - 1 is the segment right behind the head, so moving, growing and reading a
+segment are all O(1) and no objects are created per segment
+*/
+class SnakeBody {
+
+    /*
+    The ring buffer, tail points at the oldest segment and size counts how many segments are stored
+     */
+    private final int[] cells;
+    private int tail = 0;
+    private int size = 0;
+
+    /*
+    Input: Capacity
+    Output: Void
+    Purpose: Creates a body that can hold up to capacity segments, a snake can never be longer than the
+    number of cells on the board so that is what should be passed in
+    */
+    SnakeBody(int capacity) { cells = new int[capacity]; }
+
+    /*
+    Input: Void
+    Output: Int
+    Purpose: Gives the number of body segments
+    */
+    int size() { return size; }
+
+    /*
+    Input: Void
+    Output: Int
+    Purpose: Gives the maximum number of segments the body can hold
+    */
+    int capacity() { return cells.length; }
+
+    /*
+    Input: Void
+    Output: Void
+    Purpose: Removes all of the segments
+    */
+    void clear() {
+        tail = 0;
+        size = 0;
+    }
+
+    /*
+    Input: Index
+    Output: Packed cell
+    Purpose: Gives the segment at the index, 0 being the tail end and size - 1 being next to the head
+    */
+    int get(int index) {
+        int slot = tail + index;
+        if (slot >= cells.length) { slot -= cells.length; }
+        return cells[slot];
+    }
+
+    /*
+    Input: Packed cell
+    Output: Void
+    Purpose: Adds a new segment at the tail end, it is the next segment to be moved up behind the head
+    */
+    void grow(int cell) {
+        if (size == cells.length) { throw new IllegalStateException("Snake body is full"); }
+        tail = tail == 0 ? cells.length - 1 : tail - 1;
+        cells[tail] = cell;
+        size++;
+    }
+
+    /*
+    Input: Packed cell
+    Output: Packed cell of the segment that was dropped
+    Purpose: Moves the body up by one, the tail segment is dropped and the new cell is added behind the head.
+    Must only be called when the body is not empty
+    */
+    int move(int cell) {
+        int dropped = cells[tail];
+        //Slot right after the current head end, wraps around to the front of the array
+        int head = tail + size;
+        if (head >= cells.length) { head -= cells.length; }
+        cells[head] = cell;
+        tail++;
+        if (tail == cells.length) { tail = 0; }
+        return dropped;
+    }
+}
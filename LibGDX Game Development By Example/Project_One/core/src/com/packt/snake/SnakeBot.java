@@ -0,0 +1,16 @@
+package com.packt.snake;
+
+/*
+Input: Void
+Output: Void
+Purpose: Something that plays the snake game instead of the user, it is asked for a turn before every tick
+*/
+public interface SnakeBot {
+
+    /*
+    Input: Simulation about to be ticked
+    Output: Direction or SnakeSimulation.NO_TURN
+    Purpose: Picks the turn for the next tick
+    */
+    int chooseTurn(SnakeSimulation simulation);
+}
@@ -20,14 +20,14 @@ import com.badlogic.gdx.graphics.OrthographicCamera;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.Batch;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
-import com.badlogic.gdx.graphics.g2d.GlyphLayout;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
-import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
-import com.badlogic.gdx.math.MathUtils;
-import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.StreamUtils;
 import com.badlogic.gdx.utils.viewport.FitViewport;
 import com.badlogic.gdx.utils.viewport.Viewport;
 
+import java.io.IOException;
+import java.io.OutputStream;
+
 /*
 Input: Void
 Output: Void
@@ -37,9 +37,9 @@ rendering the screen and then sending the final product to the SnakeGame class
 class GameScreen extends ScreenAdapter {
 
 	/*
-	Flags
+	Input, key presses are queued as they happen and one turn is used every tick
 	 */
-	private  boolean directionSet = false;	//A flag to keep track of if the user has input a direction
+	private SnakeInputQueue inputQueue = new SnakeInputQueue();
 
 	/*
 	ViewPorts
@@ -59,16 +59,18 @@ class GameScreen extends ScreenAdapter {
 	Bitmap font variable that store the text output 
 	 */
 	private BitmapFont bitmapFont;					//A variable of font
-	private GlyphLayout layout = new GlyphLayout(); //Layout that will define the size of the font
+	private HudText scoreText;						//Score shown while playing
+	private HudText gameOverText;					//Game over message with the final score
 	private static final String GAME_OVER_TEXT = "Game Over... Tap space to restart!";
-	private Integer Score = 0;
-	private Integer POINTS_PER_APPLE = 20;
+	private static final int POINTS_PER_APPLE = 20;
 
 	/*
-	Creates the shape renderer object that will draw rectangles on the screen with cell size of 32x32 pixel
+	The cached grid drawn behind everything with cell size of 32x32 pixel, G turns it on and off
 	 */
-	private ShapeRenderer shapeRenderer;
+	private GridLayer gridLayer;
 	private static final int GRID_CELL = 32;
+	private static final int GRID_COLUMNS = (int) WORLD_WIDTH / GRID_CELL;
+	private static final int GRID_ROWS = (int) WORLD_HEIGHT / GRID_CELL;
 
 	/*
 	The batch section that creates all of the different texture our images will be attached to
@@ -78,137 +80,58 @@ class GameScreen extends ScreenAdapter {
 	private Texture snakeBody; //The snakebody texture
 	private Texture apple;     //The apple texture
 
-	/*
-	Variables pertain to the apples existence and position
-	 */
-	private boolean appleAvailable = false; //Tells us if the apple is displayed or not
-	private int appleX, appleY;             //Tells us where the apple exists on the screen
-
-
-	/*
-	Variables pertain to the snakes movement distance in pixels and position of the head and the position of where the head was before
-	 */
-	private static final int SNAKE_MOVEMENT = 32; //Sets that it can only move 32 pixel at a time
-	private int snakeX = 0, snakeY = 0; //Sets the initial position
-	private int snakeXBeforeUpdate = 0, snakeYBeforeUpdate = 0; //Sets where the head used to be to 0,0
-
-	/*
-	Direction variables, defines what is Left,Right, Up and Down, and presets the initial movement to Right
-	 */
-	private static final int RIGHT = 0;
-	private static final int LEFT = 1;
-	private static final int UP = 2;
-	private static final int DOWN = 3;
-	private int snakeDirection = RIGHT; 	//User can change this to move around
-
 	/*
 	Time variables, counts down how much time has passed between the frames
 	 */
 	private static final float MOVE_TIME = 0.3F; //The amount of time we want to pass between frames
 	private float timer = MOVE_TIME;			 //Keeps track of how much time has passed, timer-delta if timer < 0 update
+	private static final float MAX_FRAME_TIME = 0.25f; //Stops a long pause from running a burst of moves in one frame
+
+	/*
+	The rules of the game, the screen only feeds it turns and draws what it holds
+	 */
+	private SnakeSimulation simulation = new SnakeSimulation(GRID_COLUMNS, GRID_ROWS, POINTS_PER_APPLE);
+	private BodyPart bodyPart;	//Draws every segment stored in the simulation
 
 	/*
-	Holds all of the instances of the body part
+	Every game is recorded and saved when it ends so it can be played again with SnakeReplayPlayer
 	 */
-	private Array<BodyPart> bodyParts = new Array<>();
+	private static final String REPLAY_FILE = "last_game.snakereplay";
+	private SnakeReplayRecorder recorder = new SnakeReplayRecorder();
 
 	/*
 	Input: Void
 	Output: Void
-	Purpose: The class stores all of the information that a body part object would need
+	Purpose: The class stores all of the information that is needed to draw a body part, the position of
+	each part is read from the simulation so one of these draws the whole body
 	*/
 	private class BodyPart {
-		private int x, y;										//Initiates the x and y variables
 		private Texture texture;								//Initiates texture variable
 		BodyPart(Texture texture) { this.texture = texture; }   //Constructor initializes the texture variable
 
 		/*
-		Input: Void
+		Input: Batch, Packed cell
 		Output: Void
-		Purpose: Updates the position of the body part
+		Purpose: Adds the body texture to the cell unless the head is onto of it, then doesn't draw anything
 		*/
-		void updateBodyPosition(int x, int y) {
-			this.x = x;
-			this.y = y;
+		void draw(Batch batch, int cell) {
+			if (cell != simulation.getHeadCell()) batch.draw(texture, cellToX(cell), cellToY(cell));
 		}
-
-		/*
-		Input: Batch
-		Output: Void
-		Purpose: Adds the body texture to the object unless the head is onto of it, then doesn't draw anything
-		*/
-		void draw(Batch batch) { if (!(x == snakeX && y == snakeY)) batch.draw(texture, x, y); }
 	}
 
 	/*
-	Input: Void
-	Output: Void
-	Purpose: Updates the the position of the snake body part if they pass the boarders of the screen
+	Input: Packed cell
+	Output: X in pixels
+	Purpose: Unpacks the x position of a cell
 	*/
-	private void checkForOutOfBounds() {
-		if (snakeX >= Gdx.graphics.getWidth()) { snakeX = 0; }                  //If snake goes past right edge shows up on left side
-		if (snakeX < 0) { snakeX = (int) viewport.getWorldHeight() - SNAKE_MOVEMENT; }  //If snake goes past left edge shows up on right side
-		if (snakeY >= Gdx.graphics.getHeight()) { snakeY = 0; }                 //If snake goes past up edge shows up on the down side
-		if (snakeY < 0) { snakeY = (int) viewport.getWorldWidth() - SNAKE_MOVEMENT; } //If snakes goes past down edge shows up on the up side
-	}
+	private int cellToX(int cell) { return simulation.cellColumn(cell) * GRID_CELL; }
 
 	/*
-	Input: Void
-	Output: Void
-	Purpose: Checks if the new direction is not opposite of the old direction
+	Input: Packed cell
+	Output: Y in pixels
+	Purpose: Unpacks the y position of a cell
 	*/
-	private void updateIfNotOppositeDirection(int newSnakeDirection, int oppositeDirection) {
-		if (snakeDirection != oppositeDirection || bodyParts.size == 0) {snakeDirection = newSnakeDirection;}
-	}
-
-	/*
-	Input: Void
-	Output: Void
-	Purpose: Goes through all possible choice for the input given in and see if such action is allowed
-	*/
-	private void updateDirection(int newSnakeDirection) {
-		if (!directionSet && snakeDirection != newSnakeDirection) {
-			directionSet = true;		//Says that the user has made a choice
-			switch (newSnakeDirection) {
-				case LEFT: {
-					updateIfNotOppositeDirection(newSnakeDirection, RIGHT);
-				}
-				break;
-				case RIGHT: {
-					updateIfNotOppositeDirection(newSnakeDirection, LEFT);
-				}
-				break;
-				case UP: {
-					updateIfNotOppositeDirection(newSnakeDirection, DOWN);
-				}
-				break;
-				case DOWN: {
-					updateIfNotOppositeDirection(newSnakeDirection, UP);
-				}
-				break;
-			}
-		}
-	}
-
-	/*
-	Input: Void
-	Output: Void
-	Purpose: Listens to the user keyboard inputs and changes the direction variable accordingly
-	User can use WASD or Arrow keys to change direction
-	*/
-	private void queryInput(){
-		//Listens for a key press, if pressed the variable is true, if not pressed variable is false
-		boolean lPressed = Gdx.input.isKeyPressed(Input.Keys.A) || Gdx.input.isKeyPressed(Input.Keys.LEFT);
-		boolean rPressed = Gdx.input.isKeyPressed(Input.Keys.D) || Gdx.input.isKeyPressed(Input.Keys.RIGHT);
-		boolean dPressed = Gdx.input.isKeyPressed(Input.Keys.S) || Gdx.input.isKeyPressed(Input.Keys.DOWN);
-		boolean uPressed = Gdx.input.isKeyPressed(Input.Keys.W) || Gdx.input.isKeyPressed(Input.Keys.UP);
-
-		//If one of the buttons was pressed updates the direction
-		if (lPressed) updateDirection(LEFT);
-		if (rPressed) updateDirection(RIGHT);
-		if (dPressed) updateDirection(DOWN);
-		if (uPressed) updateDirection(UP);
-	}
+	private int cellToY(int cell) { return simulation.cellRow(cell) * GRID_CELL; }
 
 	/*
 	Input: Void
@@ -226,113 +149,33 @@ class GameScreen extends ScreenAdapter {
 	*/
 	private void doRestart() {
 		state = STATE.PLAYING;
-		bodyParts.clear();
-		snakeDirection = RIGHT;
-		directionSet = false;
+		simulation.reset();
+		recorder.begin(simulation);
+		inputQueue.clear();
 		timer = MOVE_TIME;
-		Score = 0;
-		snakeX = 0;
-		snakeY = 0;
-		snakeXBeforeUpdate = 0;
-		snakeYBeforeUpdate = 0;
-		appleAvailable = false;
 	}
 
 	/*
-	Input: Void
+	Input: Delta
 	Output: Void
-	Purpose: Saves current position of the snake and then updates the position of the snake based on the current set direction
+	Purpose: Runs a simulation tick every MOVE_TIME seconds, the leftover time is kept so the snake moves at
+	the same rate no matter the frame rate. A frame counts for at most MAX_FRAME_TIME so the snake never makes
+	a burst of moves after a pause
 	*/
-	private void moveSnake() {
-		//Saves the position of the snake head
-		snakeXBeforeUpdate = snakeX;
-		snakeYBeforeUpdate = snakeY;
-
-		//Updates the position of the snake to new position
-		switch (snakeDirection) {
-			case RIGHT: {
-				snakeX += SNAKE_MOVEMENT;
-				return;
-			}
-			case LEFT: {
-				snakeX -= SNAKE_MOVEMENT;
-				return;
-			}
-			case UP: {
-				snakeY += SNAKE_MOVEMENT;
-				return;
-			}
-			case DOWN: {
-				snakeY -= SNAKE_MOVEMENT;
-			}
-		}
-	}
-
-	/*
-	Input: Void
-	Output: Void
-	Purpose: Only updates one body the rest don't need to be redrawn
-
-	*/
-	private void updateBodyPartsPosition() {
-		//Checks if the array is empty
-		if (bodyParts.size > 0) {
-			//If not removes the body first body part from the array an initializes it to a local variable
-			BodyPart bodyPart = bodyParts.removeIndex(0);
-			//Gives the local variable the new position
-			bodyPart.updateBodyPosition(snakeXBeforeUpdate, snakeYBeforeUpdate);
-			//Puts the local valuable at the end of the array
-			bodyParts.add(bodyPart);
-		}
-	}
-
-
-	/*
-	Input: Void
-	Output: Void
-	Purpose: Changes the position of the apple away from the snake
-	*/
-	private void checkAndPlaceApple() {
-		//Checks if the apple is available
-		if (!appleAvailable) {
-			do {
-				//Randomize the location of the apple
-				appleX = MathUtils.random((int) (viewport.getWorldWidth() / SNAKE_MOVEMENT) - 1) * SNAKE_MOVEMENT;
-				appleY = MathUtils.random((int) (viewport.getWorldHeight() / SNAKE_MOVEMENT) - 1) * SNAKE_MOVEMENT;
-				appleAvailable = true;
-			} while (appleX == snakeX && appleY == snakeY);
-		}
-	}
-
-	private void addToScore(){
-		Score += POINTS_PER_APPLE;
-	}
-
-	/*
-	Input: Void
-	Output: Void
-	Purpose: Checks for if the snake passes over the apple
-	*/
-	private void checkAppleCollision() {
-		if (appleAvailable && appleX == snakeX && appleY == snakeY) {
-			BodyPart bodyPart = new BodyPart(snakeBody);
-			bodyPart.updateBodyPosition(snakeX, snakeY);
-			bodyParts.insert(0,bodyPart);
-			addToScore();
-			appleAvailable = false;
-		}
-	}
-
-	/*
-	Input: Void
-	Output: Void
-	Purpose: Checks if the head has touched any of the body parts, if the snake does it's game over
-	*/
-	private void checkSnakeBodyCollision() {
-		for (BodyPart bodyPart : bodyParts) {
-			if (bodyPart.x == snakeX && bodyPart.y == snakeY) {
-				state = STATE.GAME_OVER;
-				break;
+	private void updateSnake(float delta) {
+		if (state == STATE.PLAYING) {
+			timer -= Math.min(delta, MAX_FRAME_TIME);    //Sees if the frame has updated
+			while (timer <= 0 && state == STATE.PLAYING) {
+				timer += MOVE_TIME;          //Adds the next 0.3 on top of what is left over
+				int turn = inputQueue.nextTurn(simulation);
+				recorder.record(simulation, turn);
+				simulation.tick(turn);		 //Moves, grows and collides the snake with one queued turn
+				if (simulation.isGameOver()) {
+					state = STATE.GAME_OVER;
+					saveReplay();
+					Gdx.app.log("Input", "Turn latency ms, average: " + inputQueue.getAverageLatencyMillis()
+							+ " max: " + inputQueue.getMaxLatencyMillis());
+				}
 			}
 		}
 	}
@@ -340,23 +183,17 @@ class GameScreen extends ScreenAdapter {
 	/*
 	Input: Void
 	Output: Void
-	Purpose: Deals with updating all of the variables of the snake:
-		Position,
-		Body Parts Position
-		If Collided with Body Part
-		If Chosen an action
+	Purpose: Writes the recording of the game that just ended to a local file, a failed write only loses
+	the replay so it is logged and the game goes on
 	*/
-	private void updateSnake(float delta) {
-		if (state == STATE.PLAYING) {
-			timer -= delta;                  //Sees if the frame has updated
-			if (timer <= 0) {
-				timer = MOVE_TIME;           //Sets the timer back to the 0.3
-				moveSnake();               	 //Updates position of the snake on the screen
-				checkForOutOfBounds();       //Checks if the snakes position moved past the screen if so corrects it
-				updateBodyPartsPosition();   //Updates position of all of the bodyparts
-				checkSnakeBodyCollision();   //Checks if head touched any of the body parts
-				directionSet = false;        //Resets user's ability to input a direction
-			}
+	private void saveReplay() {
+		OutputStream out = Gdx.files.local(REPLAY_FILE).write(false);
+		try {
+			recorder.finish(simulation).write(out);
+		} catch (IOException e) {
+			Gdx.app.error("Replay", "Could not save " + REPLAY_FILE, e);
+		} finally {
+			StreamUtils.closeQuietly(out);
 		}
 	}
 
@@ -373,24 +210,16 @@ class GameScreen extends ScreenAdapter {
 	/*
 	Input: Void
 	Output: Void
-	Purpose: Creates 32x32 pixel grids across the screen
+	Purpose: Checks for the click of the G key, if so shows or hides the grid
 	*/
-	private void drawGrid() {
-		shapeRenderer.setProjectionMatrix(camera.projection);
-		shapeRenderer.setTransformMatrix(camera.view);
-		shapeRenderer.begin(ShapeRenderer.ShapeType.Line);
-		for (int x = 0; x < Gdx.graphics.getWidth(); x += GRID_CELL) {
-			for (int y = 0; y < Gdx.graphics.getHeight(); y += GRID_CELL) {
-				shapeRenderer.rect(x,y, GRID_CELL, GRID_CELL);
-			}
-		}
-		shapeRenderer.end();
+	private void checkForGridToggle() {
+		if (Gdx.input.isKeyJustPressed(Input.Keys.G)) { gridLayer.toggle(); }
 	}
 
 	private  void drawScore(){
 		if (state == STATE.PLAYING) {
-			layout.setText(bitmapFont, Score.toString());   //Connects the bitmap font and text to a layout
-			bitmapFont.draw(batch,  Score.toString(), 0, 480 - layout.height); //Draws in top of left screen
+			scoreText.setValue(simulation.getScore());   //Only lays the text out again if the score changed
+			scoreText.draw(batch, 0, 480 - scoreText.getHeight()); //Draws in top of left screen
 		}
 	}
 
@@ -405,17 +234,20 @@ class GameScreen extends ScreenAdapter {
 		batch.setTransformMatrix(camera.view);
 
 		batch.begin();
+		//Draws the 32x32 pixel grid across the world
+		gridLayer.draw(batch);
 		//Draws the snake head
-		batch.draw(snakeHead, snakeX, snakeY);
-		//Draws the texture for each body part in the array
-		for (BodyPart bodyPart : bodyParts) { bodyPart.draw(batch); }
+		batch.draw(snakeHead, cellToX(simulation.getHeadCell()), cellToY(simulation.getHeadCell()));
+		//Draws the texture for each body part in the simulation
+		for (int i = 0; i < simulation.getBodySize(); i++) { bodyPart.draw(batch, simulation.getBodyCell(i)); }
 		//If apple is available draws apple
-		if (appleAvailable) { batch.draw(apple, appleX, appleY); }
+		if (simulation.getAppleCell() != SnakeSimulation.NO_APPLE) {
+			batch.draw(apple, cellToX(simulation.getAppleCell()), cellToY(simulation.getAppleCell()));
+		}
 		//Adds the font
 		if (state == STATE.GAME_OVER) {
-			String gameOver = GAME_OVER_TEXT + "\nFinal Score:" + Score.toString();
-			layout.setText(bitmapFont, gameOver);   //Connects the bitmap font and text to a layout
-			bitmapFont.draw(batch, gameOver, (640 - layout.width) / 2, (480 - layout.height) / 2); //draws it in the center of the screen
+			gameOverText.setValue(simulation.getScore());   //Only lays the text out again if the score changed
+			gameOverText.draw(batch, (640 - gameOverText.getWidth()) / 2, (480 - gameOverText.getHeight()) / 2); //draws it in the center of the screen
 		}
 		drawScore();
 		batch.end();
@@ -433,10 +265,7 @@ class GameScreen extends ScreenAdapter {
 		 */
 		switch(state) {
 			case PLAYING: {
-				queryInput();			//Checks for user input to change direction
-				updateSnake(delta);		//Updates Snakes position and status
-				checkAppleCollision();	//Checks if the apple and snake collied
-				checkAndPlaceApple();	//Places an apple on the screen
+				updateSnake(delta);		//Updates Snakes position, status, apple and score
 			}
 			break;
 			case GAME_OVER: {
@@ -444,9 +273,9 @@ class GameScreen extends ScreenAdapter {
 			}
 			break;
 		}
+		checkForGridToggle();						//Shows or hides the grid
 		clearScreen();								//Wipes the screens
-		drawGrid();									//Uses ShapeRender to make a grid
-		draw();										//Draws the screen
+		draw();										//Draws the grid and the screen
 	}
 
 	/*
@@ -461,14 +290,41 @@ class GameScreen extends ScreenAdapter {
 		camera.update();
 		viewport = new FitViewport(WORLD_WIDTH, WORLD_HEIGHT, camera);
 
-		shapeRenderer = new ShapeRenderer();		//Initiates shape renderer
+		gridLayer = new GridLayer(WORLD_WIDTH, WORLD_HEIGHT, GRID_CELL);	//The grid is drawn once in resize
 		bitmapFont = new BitmapFont();				//Add bitmap font
+		scoreText = new HudText(bitmapFont, "");
+		gameOverText = new HudText(bitmapFont, GAME_OVER_TEXT + "\nFinal Score:");
 		//Creates the batch
 		batch = new SpriteBatch();
 		//Attaches the textures to the images
 		snakeHead = new Texture(Gdx.files.internal("snakehead.png"));
 		snakeBody = new Texture(Gdx.files.internal("snakebody.png"));
 		apple = new Texture(Gdx.files.internal("apple.png"));
+		bodyPart = new BodyPart(snakeBody);
+		Gdx.input.setInputProcessor(inputQueue);	//Key presses go straight into the turn queue
+		recorder.begin(simulation);
+	}
+
+	/*
+	Input: New screen size
+	Output: Void
+	Purpose: Fits the world to the new screen size and redraws the cached grid at the new resolution
+	*/
+	@Override
+	public void resize(int width, int height) {
+		viewport.update(width, height);
+		gridLayer.rebuild(viewport.getScreenWidth(), viewport.getScreenHeight());
+		viewport.apply();	//Drawing into the frame buffer reset the gl viewport to the whole window
+	}
+
+	/*
+	Input: Void
+	Output: Void
+	Purpose: Frees the frame buffer that holds the grid
+	*/
+	@Override
+	public void dispose() {
+		gridLayer.dispose();
 	}
 
 }
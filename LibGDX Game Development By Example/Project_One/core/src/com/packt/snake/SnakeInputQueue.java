@@ -0,0 +1,124 @@
+package com.packt.snake;
+
+import com.badlogic.gdx.Input;
+import com.badlogic.gdx.InputAdapter;
+import com.badlogic.gdx.utils.TimeUtils;
+
+/*
+Input: Void
+Output: Void
+Purpose: Collects the turns the user presses as key down events, each one stamped with the time it was
+pressed. A few turns are buffered so a quick double turn inside one tick isn't lost, and the game takes
+exactly one legal turn out every tick. The time between pressing a key and the snake moving with it is
+kept as the input latency
+*/
+class SnakeInputQueue extends InputAdapter {
+
+    private static final int CAPACITY = 3;  //Turns that can wait for a tick, anything past this is dropped
+
+    /*
+    Ring of pending turns and the time each key was pressed
+     */
+    private final int[] turns = new int[CAPACITY];
+    private final long[] pressedAt = new long[CAPACITY];
+    private int first = 0;
+    private int size = 0;
+
+    /*
+    Latency of the turns that were used, in nanoseconds
+     */
+    private long lastLatency = 0;
+    private long maxLatency = 0;
+    private long totalLatency = 0;
+    private int usedTurns = 0;
+
+    /*
+    Input: Key code
+    Output: True if the key is a turn key
+    Purpose: Adds WASD and Arrow key presses to the end of the queue
+    */
+    @Override
+    public boolean keyDown(int keycode) {
+        int turn = toTurn(keycode);
+        if (turn == SnakeSimulation.NO_TURN) { return false; }
+        //Queue is full or the same turn is already waiting at the end of it
+        if (size == CAPACITY || (size > 0 && turns[slot(size - 1)] == turn)) { return true; }
+        turns[slot(size)] = turn;
+        pressedAt[slot(size)] = TimeUtils.nanoTime();
+        size++;
+        return true;
+    }
+
+    /*
+    Input: Simulation
+    Output: Direction to pass to the next tick or NO_TURN
+    Purpose: Takes the oldest turn that is legal for where the snake is heading, the turns before it that
+    aren't legal anymore are thrown away
+    */
+    int nextTurn(SnakeSimulation simulation) {
+        while (size > 0) {
+            int turn = turns[first];
+            long time = pressedAt[first];
+            first = slot(1);
+            size--;
+            if (simulation.isLegalTurn(turn)) {
+                recordLatency(TimeUtils.nanoTime() - time);
+                return turn;
+            }
+        }
+        return SnakeSimulation.NO_TURN;
+    }
+
+    /*
+    Input: Void
+    Output: Void
+    Purpose: Forgets all the waiting turns, used when the game restarts
+    */
+    void clear() {
+        first = 0;
+        size = 0;
+    }
+
+    /*
+    Input: Void
+    Output: Latency in milliseconds
+    Purpose: Time between the key press and the tick that used it for the last turn, the worst turn and on
+    average over every turn used so far
+    */
+    float getLastLatencyMillis() { return lastLatency / 1000000f; }
+    float getMaxLatencyMillis() { return maxLatency / 1000000f; }
+    float getAverageLatencyMillis() { return usedTurns == 0 ? 0 : totalLatency / (usedTurns * 1000000f); }
+
+    private void recordLatency(long latency) {
+        lastLatency = latency;
+        maxLatency = Math.max(maxLatency, latency);
+        totalLatency += latency;
+        usedTurns++;
+    }
+
+    /*
+    Input: Position in the queue
+    Output: Index in the arrays
+    Purpose: Wraps the queue around the arrays
+    */
+    private int slot(int index) { return (first + index) % CAPACITY; }
+
+    /*
+    Input: Key code
+    Output: Direction
+    Purpose: User can use WASD or Arrow keys to change direction
+    */
+    private static int toTurn(int keycode) {
+        switch (keycode) {
+            case Input.Keys.A:
+            case Input.Keys.LEFT: return SnakeSimulation.LEFT;
+            case Input.Keys.D:
+            case Input.Keys.RIGHT: return SnakeSimulation.RIGHT;
+            case Input.Keys.S:
+            case Input.Keys.DOWN: return SnakeSimulation.DOWN;
+            case Input.Keys.W:
+            case Input.Keys.UP: return SnakeSimulation.UP;
+            default: return SnakeSimulation.NO_TURN;
+        }
+    }
+}
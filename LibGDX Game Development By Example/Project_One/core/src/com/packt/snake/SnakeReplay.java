@@ -0,0 +1,151 @@
+package com.packt.snake;
+
+import com.badlogic.gdx.utils.IntArray;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/*
+Input: Void
+Output: Void
+Purpose: Everything needed to play a snake game again exactly, the board, the seed and every turn with the
+tick it happened on. The file is a small header followed by one variable length number per turn holding
+the ticks since the last turn and the direction, most turns fit in a single byte
+*/
+public class SnakeReplay {
+
+    private static final int MAGIC = 0x534E4B52;    //SNKR
+    private static final int VERSION = 1;
+    private static final int END_OF_TURNS = 0;      //Turns are always at least one tick apart so 0 is free
+
+    private final int columns;
+    private final int rows;
+    private final int pointsPerApple;
+    private final long seed;
+
+    /*
+    Tick each turn was used on, the ticks start at 1, and the direction of that turn
+     */
+    private final IntArray turnTicks = new IntArray();
+    private final IntArray turns = new IntArray();
+    private long length = 0;    //Number of ticks the game ran for
+
+    /*
+    Input: Board, points per apple and the seed of the game
+    Output: Void
+    Purpose: Creates a replay with no turns in it yet
+    */
+    public SnakeReplay(int columns, int rows, int pointsPerApple, long seed) {
+        this.columns = columns;
+        this.rows = rows;
+        this.pointsPerApple = pointsPerApple;
+        this.seed = seed;
+    }
+
+    /*
+    Input: Tick the turn is used on, Direction
+    Output: Void
+    Purpose: Adds a turn, the ticks have to go up
+    */
+    void addTurn(long tick, int turn) {
+        if (turnTicks.size > 0 && tick <= turnTicks.peek()) { throw new IllegalArgumentException("Turn ticks must increase"); }
+        turnTicks.add((int) tick);
+        turns.add(turn);
+        length = Math.max(length, tick);
+    }
+
+    /*
+    Input: Number of ticks
+    Output: Void
+    Purpose: Sets how long the game ran for
+    */
+    void setLength(long length) { this.length = length; }
+
+    /*
+    Getters
+     */
+    public int getColumns() { return columns; }
+    public int getRows() { return rows; }
+    public int getPointsPerApple() { return pointsPerApple; }
+    public long getSeed() { return seed; }
+    public long getLength() { return length; }
+    public int getTurnCount() { return turns.size; }
+    public int getTurnTick(int index) { return turnTicks.get(index); }
+    public int getTurn(int index) { return turns.get(index); }
+
+    /*
+    Input: Stream
+    Output: Void
+    Purpose: Writes the replay out in the compact binary form, the stream is not closed
+    */
+    public void write(OutputStream stream) throws IOException {
+        DataOutputStream out = new DataOutputStream(stream);
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        writeVarLong(out, columns);
+        writeVarLong(out, rows);
+        writeVarLong(out, pointsPerApple);
+        out.writeLong(seed);
+        long previousTick = 0;
+        for (int i = 0; i < turns.size; i++) {
+            //Two low bits hold the direction, the rest the ticks since the last turn
+            writeVarLong(out, ((turnTicks.get(i) - previousTick) << 2) | turns.get(i));
+            previousTick = turnTicks.get(i);
+        }
+        writeVarLong(out, END_OF_TURNS);
+        writeVarLong(out, length - previousTick);
+        out.flush();
+    }
+
+    /*
+    Input: Stream
+    Output: Replay
+    Purpose: Reads a replay written by write, the stream is not closed
+    */
+    public static SnakeReplay read(InputStream stream) throws IOException {
+        DataInputStream in = new DataInputStream(stream);
+        if (in.readInt() != MAGIC) { throw new IOException("Not a snake replay"); }
+        int version = in.readUnsignedByte();
+        if (version != VERSION) { throw new IOException("Unsupported snake replay version " + version); }
+        SnakeReplay replay = new SnakeReplay((int) readVarLong(in), (int) readVarLong(in), (int) readVarLong(in), in.readLong());
+        long tick = 0;
+        long turn;
+        while ((turn = readVarLong(in)) != END_OF_TURNS) {
+            tick += turn >>> 2;
+            replay.addTurn(tick, (int) (turn & 3));
+        }
+        replay.setLength(tick + readVarLong(in));
+        return replay;
+    }
+
+    /*
+    Input: Stream, Number that isn't negative
+    Output: Void
+    Purpose: Writes 7 bits per byte, the high bit says if another byte follows
+    */
+    private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    /*
+    Input: Stream
+    Output: Number
+    Purpose: Reads a number written by writeVarLong
+    */
+    private static long readVarLong(DataInputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) { return value; }
+        }
+        throw new IOException("Malformed number in snake replay");
+    }
+}
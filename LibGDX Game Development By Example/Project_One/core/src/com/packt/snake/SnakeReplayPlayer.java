@@ -0,0 +1,81 @@
+package com.packt.snake;
+
+import com.badlogic.gdx.utils.TimeUtils;
+
+/*
+Input: Void
+Output: Void
+Purpose: Plays a recorded game again on a new simulation with the same seed and the same turns, nothing
+is drawn. It can run as fast as possible or at a set number of ticks per second
+*/
+public class SnakeReplayPlayer {
+
+    private final SnakeReplay replay;
+    private final SnakeSimulation simulation;
+    private int nextTurn = 0;   //Index of the next recorded turn
+
+    /*
+    Input: Replay
+    Output: Void
+    Purpose: Sets up the simulation at the start of the recorded game
+    */
+    public SnakeReplayPlayer(SnakeReplay replay) {
+        this.replay = replay;
+        simulation = new SnakeSimulation(replay.getColumns(), replay.getRows(), replay.getPointsPerApple(), replay.getSeed());
+    }
+
+    public SnakeSimulation getSimulation() { return simulation; }
+
+    /*
+    Input: Void
+    Output: Void
+    Purpose: Goes back to the start of the recording
+    */
+    public void rewind() {
+        simulation.reset(replay.getSeed());
+        nextTurn = 0;
+    }
+
+    /*
+    Input: Void
+    Output: False once the recording is over
+    Purpose: Runs one tick with the turn that was recorded for it
+    */
+    public boolean step() {
+        if (simulation.isGameOver() || simulation.getTicks() >= replay.getLength()) { return false; }
+        int turn = SnakeSimulation.NO_TURN;
+        if (nextTurn < replay.getTurnCount() && replay.getTurnTick(nextTurn) == simulation.getTicks() + 1) {
+            turn = replay.getTurn(nextTurn++);
+        }
+        simulation.tick(turn);
+        return true;
+    }
+
+    /*
+    Input: Void
+    Output: Void
+    Purpose: Runs the rest of the recording as fast as possible
+    */
+    public void playToEnd() {
+        while (step()) { }
+    }
+
+    /*
+    Input: Ticks per second
+    Output: Void
+    Purpose: Runs the rest of the recording at the given speed, 0 or less runs as fast as possible
+    */
+    public void play(float ticksPerSecond) throws InterruptedException {
+        if (ticksPerSecond <= 0) {
+            playToEnd();
+            return;
+        }
+        long tickNanos = (long) (1e9 / ticksPerSecond);
+        long nextTickAt = TimeUtils.nanoTime();
+        while (step()) {
+            nextTickAt += tickNanos;
+            long wait = nextTickAt - TimeUtils.nanoTime();
+            if (wait > 0) { Thread.sleep(wait / 1000000, (int) (wait % 1000000)); }
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.packt.snake;
+
+/*
+Input: Void
+Output: Void
+Purpose: Writes down the seed and every turn of the game being played so it can be played again by
+SnakeReplayPlayer. Only turns the simulation will accept are kept so the replay holds nothing extra
+*/
+class SnakeReplayRecorder {
+
+    private SnakeReplay replay;
+
+    /*
+    Input: Simulation that was just reset
+    Output: Void
+    Purpose: Starts recording a new game
+    */
+    void begin(SnakeSimulation simulation) {
+        replay = new SnakeReplay(simulation.getColumns(), simulation.getRows(),
+                simulation.getPointsPerApple(), simulation.getSeed());
+    }
+
+    /*
+    Input: Simulation, Turn about to be passed to tick
+    Output: Void
+    Purpose: Has to be called right before every tick, writes down the turn if it will change the direction
+    */
+    void record(SnakeSimulation simulation, int turn) {
+        if (simulation.isLegalTurn(turn)) { replay.addTurn(simulation.getTicks() + 1, turn); }
+    }
+
+    /*
+    Input: Simulation
+    Output: Replay of the game so far
+    Purpose: Stops recording, the returned replay can be written to a file
+    */
+    SnakeReplay finish(SnakeSimulation simulation) {
+        replay.setLength(simulation.getTicks());
+        return replay;
+    }
+}
@@ -0,0 +1,250 @@
+package com.packt.snake;
+
+import com.badlogic.gdx.math.RandomXS128;
+
+/*
+Input: Void
+Output: Void
+Purpose: Holds all of the rules of the snake game, moving, wrapping around the board, growing, colliding
+and scoring. It knows nothing about the screen, time or the keyboard, every call to tick moves the snake
+one cell with the turn the player asked for so it can be run without a window as fast as possible
+*/
+public class SnakeSimulation {
+
+    /*
+    Direction variables, defines what is Left,Right, Up and Down, NO_TURN keeps the current direction
+     */
+    public static final int RIGHT = 0;
+    public static final int LEFT = 1;
+    public static final int UP = 2;
+    public static final int DOWN = 3;
+    public static final int NO_TURN = -1;
+
+    public static final int NO_APPLE = -1;    //Apple cell when there is no apple on the board
+
+    /*
+    Board size in cells and points given for eating an apple
+     */
+    private final int columns;
+    private final int rows;
+    private final int pointsPerApple;
+
+    /*
+    Snake and board state
+     */
+    private final SnakeBody body;
+    private final GridOccupancy occupancy;
+    private final RandomXS128 random = new RandomXS128();
+    private final RandomXS128 seeds = new RandomXS128();    //Picks the seed of every new game
+    private long seed;
+    private int headCell;
+    private int direction;
+    private int appleCell;
+    private int score;
+    private boolean gameOver;
+    private long ticks;
+
+    /*
+    Input: Board width and height in cells, points for every apple
+    Output: Void
+    Purpose: Creates a board and starts a new game on it with a random seed
+    */
+    public SnakeSimulation(int columns, int rows, int pointsPerApple) {
+        this.columns = columns;
+        this.rows = rows;
+        this.pointsPerApple = pointsPerApple;
+        body = new SnakeBody(columns * rows);
+        occupancy = new GridOccupancy(columns * rows);
+        reset();
+    }
+
+    /*
+    Input: Board width and height in cells, points for every apple, seed
+    Output: Void
+    Purpose: Creates a board and starts a new game with the given seed, the same seed and turns always play
+    out the same game
+    */
+    public SnakeSimulation(int columns, int rows, int pointsPerApple, long seed) {
+        this(columns, rows, pointsPerApple);
+        reset(seed);
+    }
+
+    /*
+    Input: Void
+    Output: Void
+    Purpose: Restarts the game with a new random seed
+    */
+    public void reset() { reset(seeds.nextLong()); }
+
+    /*
+    Input: Seed for the apple positions
+    Output: Void
+    Purpose: Restarts all the variables to their initial state, the head is in the bottom left corner
+    moving right and an apple is placed
+    */
+    public void reset(long seed) {
+        this.seed = seed;
+        random.setSeed(seed);
+        body.clear();
+        occupancy.clearAll();
+        headCell = 0;
+        occupancy.set(headCell);
+        direction = RIGHT;
+        appleCell = NO_APPLE;
+        score = 0;
+        gameOver = false;
+        ticks = 0;
+        placeApple();
+    }
+
+    /*
+    Input: Direction the player wants to turn to or NO_TURN
+    Output: Void
+    Purpose: Runs one step of the game, turns the snake if the turn is legal, moves the head one cell,
+    moves the body behind it, checks if the head hit the body and eats the apple if the head is on it
+    */
+    public void tick(int turn) {
+        if (gameOver) { return; }
+        ticks++;
+        if (isLegalTurn(turn)) { direction = turn; }
+
+        int headCellBeforeUpdate = headCell;
+        headCell = neighbour(headCell, direction);
+
+        //Body part where the head used to be, the cell the tail leaves is freed
+        if (body.size() > 0) {
+            occupancy.clear(body.move(headCellBeforeUpdate));
+            occupancy.set(headCellBeforeUpdate);
+        }
+        //With no body the head was the only thing on that cell
+        else { occupancy.clear(headCellBeforeUpdate); }
+
+        //The head cell is only covered if a body part is on it
+        if (occupancy.isSet(headCell)) {
+            gameOver = true;
+            return;
+        }
+        occupancy.set(headCell);
+
+        if (headCell == appleCell) {
+            //The new body part sits under the head and is the next one moved up behind it
+            body.grow(headCell);
+            score += pointsPerApple;
+            appleCell = NO_APPLE;
+            placeApple();
+        }
+    }
+
+    /*
+    Input: Direction
+    Output: Boolean
+    Purpose: A turn is legal if it changes the direction and doesn't reverse the snake into its own body
+    */
+    public boolean isLegalTurn(int turn) {
+        if (turn == NO_TURN || turn == direction) { return false; }
+        return turn != opposite(direction) || body.size() == 0;
+    }
+
+    /*
+    Input: Direction
+    Output: Direction
+    Purpose: Gives the direction that points the other way
+    */
+    public static int opposite(int direction) {
+        switch (direction) {
+            case RIGHT: return LEFT;
+            case LEFT: return RIGHT;
+            case UP: return DOWN;
+            default: return UP;
+        }
+    }
+
+    /*
+    Input: Packed cell, Direction
+    Output: Packed cell
+    Purpose: Gives the cell next to the given one in that direction, going past an edge comes back on the
+    other side of the board
+    */
+    public int neighbour(int cell, int direction) {
+        int column = cell % columns;
+        int row = cell / columns;
+        switch (direction) {
+            case RIGHT: {
+                column = column == columns - 1 ? 0 : column + 1;
+            }
+            break;
+            case LEFT: {
+                column = column == 0 ? columns - 1 : column - 1;
+            }
+            break;
+            case UP: {
+                row = row == rows - 1 ? 0 : row + 1;
+            }
+            break;
+            case DOWN: {
+                row = row == 0 ? rows - 1 : row - 1;
+            }
+            break;
+        }
+        return row * columns + column;
+    }
+
+    /*
+    Input: Two packed cells
+    Output: Number of moves between the cells
+    Purpose: Distance on the board, going over an edge comes back on the other side so that is counted too
+    */
+    public int distance(int from, int to) {
+        int dx = Math.abs(cellColumn(from) - cellColumn(to));
+        int dy = Math.abs(cellRow(from) - cellRow(to));
+        return Math.min(dx, columns - dx) + Math.min(dy, rows - dy);
+    }
+
+    /*
+    Input: Void
+    Output: Void
+    Purpose: Puts the apple on one of the cells the snake is not on, if the board is full there is no apple
+    */
+    private void placeApple() {
+        if (occupancy.getFreeCount() > 0) {
+            appleCell = occupancy.getFreeCell(random.nextInt(occupancy.getFreeCount()));
+        }
+    }
+
+    /*
+    Getters, cells are packed as row * columns + column
+     */
+    public int getColumns() { return columns; }
+    public int getRows() { return rows; }
+    public int getPointsPerApple() { return pointsPerApple; }
+    public long getSeed() { return seed; }
+    public int getHeadCell() { return headCell; }
+    public int getDirection() { return direction; }
+    public int getAppleCell() { return appleCell; }
+    public int getScore() { return score; }
+    public boolean isGameOver() { return gameOver; }
+    public long getTicks() { return ticks; }
+    public int getBodySize() { return body.size(); }
+
+    /*
+    Input: Index, 0 is the tail end and getBodySize() - 1 is right behind the head
+    Output: Packed cell
+    Purpose: Gives the cell of one of the body parts
+    */
+    public int getBodyCell(int index) { return body.get(index); }
+
+    /*
+    Input: Packed cell
+    Output: Boolean
+    Purpose: Tells us if the head or the body is on the cell
+    */
+    public boolean isOccupied(int cell) { return occupancy.isSet(cell); }
+
+    /*
+    Input: Packed cell
+    Output: Column or row of the cell
+    Purpose: Unpacks a cell
+    */
+    public int cellColumn(int cell) { return cell % columns; }
+    public int cellRow(int cell) { return cell / columns; }
+}
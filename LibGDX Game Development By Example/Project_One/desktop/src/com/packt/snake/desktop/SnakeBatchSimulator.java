@@ -0,0 +1,153 @@
+package com.packt.snake.desktop;
+
+import com.packt.snake.BfsSnakeBot;
+import com.packt.snake.GreedySnakeBot;
+import com.packt.snake.SnakeBot;
+import com.packt.snake.SnakeSimulation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/*
+Input: Options as name=value pairs, all optional
+    games=10000 columns=20 rows=15 points=20 moveTime=0.3 bot=bfs maxTicks=100000
+Output: Void
+Purpose: Plays a lot of independent snake games with a bot and no window, split over every core, and
+prints score, length and survival statistics plus how many games were played per second. Used to check
+how changes to the move time, points per apple and board size play out
+*/
+public class SnakeBatchSimulator {
+
+    public static void main(String[] arg) throws Exception {
+        final Settings settings = new Settings(arg);
+        int threads = Runtime.getRuntime().availableProcessors();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+
+        long start = System.nanoTime();
+        List<Future<Stats>> results = new ArrayList<>();
+        for (int thread = 0; thread < threads; thread++) {
+            //Spreads the games as evenly as possible over the threads
+            final int games = settings.games / threads + (thread < settings.games % threads ? 1 : 0);
+            results.add(pool.submit(new Callable<Stats>() {
+                @Override
+                public Stats call() { return playGames(settings, games); }
+            }));
+        }
+        Stats total = new Stats();
+        for (Future<Stats> result : results) { total.add(result.get()); }
+        pool.shutdown();
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("%d games of %dx%d with the %s bot on %d threads in %.3f s, %.0f games per second%n",
+                total.games, settings.columns, settings.rows, settings.bot, threads, seconds, total.games / seconds);
+        System.out.printf("Score    average %.1f, max %d%n", total.average(total.score), total.maxScore);
+        System.out.printf("Length   average %.1f, max %d%n", total.average(total.length), total.maxLength);
+        System.out.printf("Survival average %.1f s, max %.1f s (%d ticks of %.2f s)%n",
+                total.average(total.ticks) * settings.moveTime, total.maxTicks * settings.moveTime,
+                total.maxTicks, settings.moveTime);
+        System.out.printf("%d games were stopped at %d ticks%n", total.stalled, settings.maxTicks);
+    }
+
+    /*
+    Input: Settings, Number of games
+    Output: Stats of those games
+    Purpose: Plays the games one after another on the calling thread with its own simulation and bot
+    */
+    private static Stats playGames(Settings settings, int games) {
+        SnakeSimulation simulation = new SnakeSimulation(settings.columns, settings.rows, settings.points);
+        SnakeBot bot = createBot(settings.bot);
+        Stats stats = new Stats();
+        for (int game = 0; game < games; game++) {
+            simulation.reset();
+            while (!simulation.isGameOver() && simulation.getTicks() < settings.maxTicks) {
+                simulation.tick(bot.chooseTurn(simulation));
+            }
+            stats.addGame(simulation, !simulation.isGameOver());
+        }
+        return stats;
+    }
+
+    /*
+    Input: Bot name
+    Output: New bot
+    Purpose: Every thread needs its own bot since they keep search state
+    */
+    private static SnakeBot createBot(String name) {
+        switch (name) {
+            case "bfs": return new BfsSnakeBot();
+            case "greedy": return new GreedySnakeBot();
+            default: throw new IllegalArgumentException("Unknown bot " + name + ", use bfs or greedy");
+        }
+    }
+
+    /*
+    Input: Void
+    Output: Void
+    Purpose: Parses the command line options
+    */
+    private static class Settings {
+        int games = 10000;
+        int columns = 20;
+        int rows = 15;
+        int points = 20;
+        float moveTime = 0.3f;
+        String bot = "bfs";
+        long maxTicks = 100000;
+
+        Settings(String[] arg) {
+            for (String option : arg) {
+                String[] pair = option.split("=", 2);
+                if (pair.length != 2) { throw new IllegalArgumentException("Expected name=value but got " + option); }
+                switch (pair[0]) {
+                    case "games": games = Integer.parseInt(pair[1]); break;
+                    case "columns": columns = Integer.parseInt(pair[1]); break;
+                    case "rows": rows = Integer.parseInt(pair[1]); break;
+                    case "points": points = Integer.parseInt(pair[1]); break;
+                    case "moveTime": moveTime = Float.parseFloat(pair[1]); break;
+                    case "bot": bot = pair[1]; break;
+                    case "maxTicks": maxTicks = Long.parseLong(pair[1]); break;
+                    default: throw new IllegalArgumentException("Unknown option " + pair[0]);
+                }
+            }
+        }
+    }
+
+    /*
+    Input: Void
+    Output: Void
+    Purpose: Totals of finished games, each thread fills its own and they are added up at the end
+    */
+    private static class Stats {
+        long games, stalled;
+        long score, length, ticks;
+        long maxScore, maxLength, maxTicks;
+
+        void addGame(SnakeSimulation simulation, boolean stopped) {
+            games++;
+            if (stopped) { stalled++; }
+            score += simulation.getScore();
+            length += simulation.getBodySize() + 1;
+            ticks += simulation.getTicks();
+            maxScore = Math.max(maxScore, simulation.getScore());
+            maxLength = Math.max(maxLength, simulation.getBodySize() + 1);
+            maxTicks = Math.max(maxTicks, simulation.getTicks());
+        }
+
+        void add(Stats other) {
+            games += other.games;
+            stalled += other.stalled;
+            score += other.score;
+            length += other.length;
+            ticks += other.ticks;
+            maxScore = Math.max(maxScore, other.maxScore);
+            maxLength = Math.max(maxLength, other.maxLength);
+            maxTicks = Math.max(maxTicks, other.maxTicks);
+        }
+
+        double average(long sum) { return games == 0 ? 0 : (double) sum / games; }
+    }
+}
@@ -0,0 +1,56 @@
+package com.packt.snake.desktop;
+
+import com.packt.snake.GreedySnakeBot;
+import com.packt.snake.SnakeBot;
+import com.packt.snake.SnakeSimulation;
+
+/*
+Input: Board columns, board rows and number of ticks, all optional
+Output: Void
+Purpose: Runs the snake simulation without a window and prints how many ticks per second it manages.
+The greedy bot steers the snake towards the apple so the body actually grows, games that end
+are restarted right away
+*/
+public class SnakeBenchmark {
+
+    private static final int POINTS_PER_APPLE = 20;
+    private static final int WARM_UP_TICKS = 1000000;
+
+    public static void main(String[] arg) {
+        int columns = arg.length > 0 ? Integer.parseInt(arg[0]) : 256;
+        int rows = arg.length > 1 ? Integer.parseInt(arg[1]) : 256;
+        long ticks = arg.length > 2 ? Long.parseLong(arg[2]) : 20000000L;
+
+        SnakeSimulation simulation = new SnakeSimulation(columns, rows, POINTS_PER_APPLE);
+        run(simulation, WARM_UP_TICKS);
+
+        simulation.reset();
+        long start = System.nanoTime();
+        long[] results = run(simulation, ticks);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("Board %dx%d, %d ticks in %.3f s%n", columns, rows, ticks, seconds);
+        System.out.printf("%.0f ticks per second%n", ticks / seconds);
+        System.out.printf("%d games finished, longest body %d%n", results[0], results[1]);
+    }
+
+    /*
+    Input: Simulation, Number of ticks
+    Output: Number of finished games and the longest body seen
+    Purpose: Ticks the simulation, restarting it whenever the snake dies
+    */
+    private static long[] run(SnakeSimulation simulation, long ticks) {
+        SnakeBot bot = new GreedySnakeBot();
+        long games = 0;
+        long longestBody = 0;
+        for (long i = 0; i < ticks; i++) {
+            simulation.tick(bot.chooseTurn(simulation));
+            if (simulation.isGameOver()) {
+                games++;
+                longestBody = Math.max(longestBody, simulation.getBodySize());
+                simulation.reset();
+            }
+        }
+        return new long[]{games, longestBody};
+    }
+}
@@ -0,0 +1,52 @@
+package com.packt.snake.desktop;
+
+import com.packt.snake.SnakeReplay;
+import com.packt.snake.SnakeReplayPlayer;
+import com.packt.snake.SnakeSimulation;
+
+import java.io.BufferedInputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/*
+Input: Replay file, ticks per second (0 is as fast as possible, the default) and how many times to play it
+Output: Void
+Purpose: Plays a recorded snake game without a window and prints how it ended. Playing it many times at
+full speed gives the tick rate on a real recorded game
+*/
+public class SnakeReplayRunner {
+
+    public static void main(String[] arg) throws IOException, InterruptedException {
+        if (arg.length < 1) {
+            System.out.println("Usage: SnakeReplayRunner <file> [ticksPerSecond] [repeat]");
+            return;
+        }
+        float ticksPerSecond = arg.length > 1 ? Float.parseFloat(arg[1]) : 0;
+        int repeat = arg.length > 2 ? Integer.parseInt(arg[2]) : 1;
+
+        SnakeReplay replay;
+        InputStream in = new BufferedInputStream(new FileInputStream(arg[0]));
+        try {
+            replay = SnakeReplay.read(in);
+        } finally {
+            in.close();
+        }
+
+        SnakeReplayPlayer player = new SnakeReplayPlayer(replay);
+        long start = System.nanoTime();
+        for (int i = 0; i < repeat; i++) {
+            player.rewind();
+            player.play(ticksPerSecond);
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        SnakeSimulation simulation = player.getSimulation();
+        System.out.printf("Board %dx%d, seed %d, %d turns over %d ticks%n", replay.getColumns(), replay.getRows(),
+                replay.getSeed(), replay.getTurnCount(), replay.getLength());
+        System.out.printf("Score %d, length %d, %s%n", simulation.getScore(), simulation.getBodySize() + 1,
+                simulation.isGameOver() ? "game over" : "still alive");
+        System.out.printf("Played %d times in %.3f s, %.0f ticks per second%n", repeat, seconds,
+                repeat * (double) simulation.getTicks() / seconds);
+    }
+}
@@ -1,52 +1,30 @@
 package com.packt.raumgame;
 
-import com.badlogic.gdx.maps.tiled.TiledMap;
-import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
 import com.badlogic.gdx.math.Intersector;
 import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.math.Rectangle;
-import com.badlogic.gdx.utils.Array;
-
-import java.util.Iterator;
 
 
 public class CollisionCell {
 
-    //Grabs a cell from the tile map
-    private TiledMapTileLayer.Cell cell;
-    //Gets that tiles position
-    private float cellX;
-    private float cellY;
-
     //Size of the cells
-    private final float CELL_SIZE = 16;
+    private static final float CELL_SIZE = 16;
 
-    /*
-    Input: Void
-    Output: Void
-    Purpose: Constructor used for putting this class in the GameScreen
-    */
-    public CollisionCell(){}
+    //Cells the actor is covering, at most four, kept as column and row so nothing is made per frame
+    private static final int MAX_COVERED_CELLS = 4;
+    private final int[] coveredCellX = new int[MAX_COVERED_CELLS];
+    private final int[] coveredCellY = new int[MAX_COVERED_CELLS];
 
-    /*
-    Input: The individual cell
-    Output: Void
-    Purpose: Central function from which everything is done from
-    */
-    public CollisionCell(TiledMapTileLayer.Cell cell, int cellX, int cellY){
-        this.cell = cell;
-        this.cellX = cellX;
-        this.cellY = cellY;
-    }
+    //Reused for every cell that is checked
+    private final Rectangle cellBounds = new Rectangle(0, 0, CELL_SIZE, CELL_SIZE);
+    private final Rectangle intersection = new Rectangle();
 
     /*
     Input: Void
     Output: Void
-    Purpose: Tells us if there is something in this cell or not
+    Purpose: Constructor used for putting this class in the GameScreen, one is enough for every actor
     */
-    public boolean isEmpty(){
-        return cell == null;
-    }
+    public CollisionCell(){}
 
     /*
         We are checking how many cells is Raum taking up
@@ -58,106 +36,75 @@ public class CollisionCell {
 
      */
 
-    private Array<CollisionCell> whichCellsAreCovered(float x, float y, TiledMap tiledMap){
-        Array<CollisionCell> cellsCovered = new Array<>();
-
-        cellX = x / CELL_SIZE;
-        cellY = y / CELL_SIZE;
+    /*
+    Input: Bottom left corner of the actor
+    Output: Number of cells written into coveredCellX and coveredCellY
+    Purpose: Finds the cells the actor is touching, in the order bottom left, top right, bottom right, top left
+    */
+    private int whichCellsAreCovered(float x, float y){
+        float cellX = x / CELL_SIZE;
+        float cellY = y / CELL_SIZE;
 
         int bottomLeftCellX = MathUtils.floor(cellX);
         int bottomLeftCellY = MathUtils.floor(cellY);
 
-        TiledMapTileLayer tiledMapTileLayer = (TiledMapTileLayer) tiledMap.getLayers().get(0);
-
         //He's in bottom x of his surrounding
-        cellsCovered.add(new CollisionCell(
-                tiledMapTileLayer.getCell(bottomLeftCellX, bottomLeftCellY),
-                bottomLeftCellX,
-                bottomLeftCellY));
+        int count = addCoveredCell(0, bottomLeftCellX, bottomLeftCellY);
 
         //Tip Right
-        if(cellX % 1 != 0 && cellY % 1 != 0){
-            int topRightCellX = bottomLeftCellX + 1;
-            int topRightCellY = bottomLeftCellY + 1;
-            cellsCovered.add(new CollisionCell(
-                    tiledMapTileLayer.getCell(topRightCellX, topRightCellY),
-                    topRightCellX,
-                    topRightCellY));
-        }
+        if(cellX % 1 != 0 && cellY % 1 != 0){ count = addCoveredCell(count, bottomLeftCellX + 1, bottomLeftCellY + 1); }
 
         //Bottom Right
-        if(cellX % 1 != 0){
-            int bottomRightX = bottomLeftCellX + 1;
-            int bottomRightY = bottomLeftCellY;
-            cellsCovered.add(new CollisionCell(
-                    tiledMapTileLayer.getCell(bottomRightX, bottomRightY),
-                    bottomRightX,
-                    bottomRightY));
-        }
+        if(cellX % 1 != 0){ count = addCoveredCell(count, bottomLeftCellX + 1, bottomLeftCellY); }
 
         //Top Left
-        if(cellY % 1 != 0){
-            int topLeftX = bottomLeftCellX;
-            int topLeftY = bottomLeftCellY + 1;
-            cellsCovered.add(new CollisionCell(
-                    tiledMapTileLayer.getCell(topLeftX, topLeftY),
-                    topLeftX,
-                    topLeftY));
-        }
+        if(cellY % 1 != 0){ count = addCoveredCell(count, bottomLeftCellX, bottomLeftCellY + 1); }
 
-        //Returns all the cells raum is touching
-        return cellsCovered;
+        //Returns how many cells raum is touching
+        return count;
     }
 
     /*
-    Input: Array Of Collision Cells, all the cells on provided map
-    Output: Array of Collision Cells; filler array
-    Purpose: Remove any spots that don't have any cells provided by tiled
-     */
-    private Array<CollisionCell> filterOutNonTiledCells(Array<CollisionCell> cells) {
-        for (Iterator<CollisionCell> iter = cells.iterator(); iter.hasNext(); ) {
-            CollisionCell collisionCell = iter.next();
-            if (collisionCell.isEmpty()) {
-                iter.remove();
-            }
-        }
-        return cells;
+    Input: Cells found so far, Column and row
+    Output: Cells found with this one
+    Purpose: Stores a covered cell
+    */
+    private int addCoveredCell(int count, int cellX, int cellY){
+        coveredCellX[count] = cellX;
+        coveredCellY[count] = cellY;
+        return count + 1;
     }
 
     /*
-    Input: Void
+    Input: Actor, Solid tiles of the map
     Output: Void
-    Purpose:
+    Purpose: Pushes the actor out of every tile it is covering, up onto the tile if the overlap is wider than
+    it is tall and to the side if not. Cells that aren't solid are skipped and one way tiles never push to
+    the side
     */
-    public void handleCollision(Raum raum, TiledMap tiledMap){
-        Array<CollisionCell> coveredCells = whichCellsAreCovered(raum.getX(),raum.getY(), tiledMap);
-        coveredCells = filterOutNonTiledCells(coveredCells);
-        
-        for(CollisionCell collisionCell : coveredCells){
-            float cellLevelX = collisionCell.cellX * CELL_SIZE;
-            float cellLevelY = collisionCell.cellY * CELL_SIZE;
+    public void handleCollision(TileActor actor, SolidTileIndex solidTiles){
+        Rectangle hitBox = actor.getHitBox();
+        int coveredCells = whichCellsAreCovered(hitBox.x, hitBox.y);
 
-            Rectangle intersection = new Rectangle();
+        for(int i = 0; i < coveredCells; i++){
+            if(!solidTiles.isSolid(coveredCellX[i], coveredCellY[i])){ continue; }
 
-            Intersector.intersectRectangles(
-                    raum.getHitBox(),
-                    new Rectangle(cellLevelX, cellLevelY, CELL_SIZE, CELL_SIZE),
-                    intersection);
+            cellBounds.setPosition(coveredCellX[i] * CELL_SIZE, coveredCellY[i] * CELL_SIZE);
+            if(!Intersector.intersectRectangles(hitBox, cellBounds, intersection)){ continue; }
 
             if(intersection.getHeight() < intersection.getWidth()){
-                raum.updatePosition(raum.getX(), intersection.getY() + intersection.getHeight());
-                raum.landed();
+                actor.updatePosition(hitBox.x, intersection.getY() + intersection.getHeight());
+                actor.landed();
             }
-            else if(intersection.getWidth() < intersection.getHeight()){
-                if(intersection.getX() == raum.getX()){
-                    raum.updatePosition(intersection.getX() + intersection.width, raum.getY());
+            else if(intersection.getWidth() < intersection.getHeight()
+                    && !solidTiles.hasFlag(coveredCellX[i], coveredCellY[i], SolidTileIndex.ONE_WAY)){
+                if(intersection.getX() == hitBox.x){
+                    actor.updatePosition(intersection.getX() + intersection.width, hitBox.y);
                 }
-                if(intersection.getX() > raum.getX()){
-                    raum.updatePosition(intersection.getX() - raum.getWidth(), raum.getY());
+                if(intersection.getX() > hitBox.x){
+                    actor.updatePosition(intersection.getX() - hitBox.width, hitBox.y);
                 }
             }
         }
-
-
     }
 }
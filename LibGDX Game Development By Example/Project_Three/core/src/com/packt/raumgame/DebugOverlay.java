@@ -0,0 +1,127 @@
+package com.packt.raumgame;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.glutils.ImmediateModeRenderer20;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.FloatArray;
+
+/*
+Input: Void
+Output: Void
+Purpose: Collects the wire frames of everything on the screen for one frame and draws them all with one
+draw call when the frame is flushed, instead of every object starting its own ShapeRenderer pass. The
+lines are kept as x, y and colour in one float buffer. While the overlay is off nothing should be added
+and flush does nothing, and the renderer is only made the first time the overlay is turned on
+*/
+public class DebugOverlay {
+
+    private static final int FLOATS_PER_VERTEX = 3;
+    private static final int MAX_VERTICES = 5000;    //Vertices sent in one draw call
+
+    private final FloatArray vertices = new FloatArray(FLOATS_PER_VERTEX * 512);
+    private ImmediateModeRenderer20 renderer;
+    private float color = Color.WHITE.toFloatBits();
+    private boolean enabled = false;
+
+    /*
+    Input: Void
+    Output: Void
+    Purpose: Turns the overlay on and off, anything collected is thrown away when it is turned off
+    */
+    public void toggle() {
+        enabled = !enabled;
+        if (enabled && renderer == null) {
+            renderer = new ImmediateModeRenderer20(MAX_VERTICES, false, true, 0);
+        }
+        vertices.clear();
+    }
+
+    /*
+    Input: Void
+    Output: Boolean
+    Purpose: Lets callers skip working out their wire frames while the overlay is off
+    */
+    public boolean isEnabled() { return enabled; }
+
+    /*
+    Input: Colour
+    Output: Void
+    Purpose: Sets the colour of the lines added after this
+    */
+    public void setColor(Color color) { this.color = color.toFloatBits(); }
+
+    /*
+    Input: Both ends of the line
+    Output: Void
+    Purpose: Adds a line
+    */
+    public void line(float x1, float y1, float x2, float y2) {
+        vertices.add(x1, y1, color);
+        vertices.add(x2, y2, color);
+    }
+
+    /*
+    Input: Bottom left corner, width and height
+    Output: Void
+    Purpose: Adds the outline of a rectangle
+    */
+    public void rect(float x, float y, float width, float height) {
+        line(x, y, x + width, y);
+        line(x + width, y, x + width, y + height);
+        line(x + width, y + height, x, y + height);
+        line(x, y + height, x, y);
+    }
+
+    /*
+    Input: Centre and radius
+    Output: Void
+    Purpose: Adds the outline of a circle with as many segments as ShapeRenderer would use
+    */
+    public void circle(float x, float y, float radius) {
+        int segments = Math.max(1, (int) (6 * (float) Math.cbrt(radius)));
+        float step = MathUtils.PI2 / segments;
+        float previousX = x + radius;
+        float previousY = y;
+        for (int i = 1; i <= segments; i++) {
+            float nextX = x + radius * MathUtils.cos(i * step);
+            float nextY = y + radius * MathUtils.sin(i * step);
+            line(previousX, previousY, nextX, nextY);
+            previousX = nextX;
+            previousY = nextY;
+        }
+    }
+
+    /*
+    Input: Camera matrix
+    Output: Void
+    Purpose: Draws everything collected this frame as lines and empties the buffer, it is only split into
+    more draw calls if there are more than MAX_VERTICES vertices
+    */
+    public void flush(Matrix4 projectionView) {
+        if (!enabled || vertices.size == 0) { return; }
+        float[] items = vertices.items;
+        renderer.begin(projectionView, GL20.GL_LINES);
+        for (int i = 0; i < vertices.size; i += FLOATS_PER_VERTEX) {
+            //Lines are never split between two draw calls
+            if (renderer.getNumVertices() == MAX_VERTICES) {
+                renderer.end();
+                renderer.begin(projectionView, GL20.GL_LINES);
+            }
+            renderer.color(items[i + 2]);
+            renderer.vertex(items[i], items[i + 1], 0);
+        }
+        renderer.end();
+        vertices.clear();
+    }
+
+    /*
+    Input: Void
+    Output: Void
+    Purpose: Gets rid of the renderer
+    */
+    public void dispose() {
+        if (renderer != null) { renderer.dispose(); }
+    }
+}
@@ -1,6 +1,7 @@
 package com.packt.raumgame;
 
 import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Input;
 import com.badlogic.gdx.ScreenAdapter;
 import com.badlogic.gdx.audio.Music;
 import com.badlogic.gdx.audio.Sound;
@@ -10,16 +11,10 @@ import com.badlogic.gdx.graphics.GL20;
 import com.badlogic.gdx.graphics.OrthographicCamera;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
-import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
-import com.badlogic.gdx.maps.MapLayer;
-import com.badlogic.gdx.maps.MapObject;
 import com.badlogic.gdx.maps.tiled.TiledMap;
-import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
-import com.badlogic.gdx.maps.tiled.renderers.OrthogonalTiledMapRenderer;
 import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.viewport.StretchViewport;
 import com.badlogic.gdx.utils.viewport.Viewport;
-import java.util.Iterator;
 
 public class GameScreen extends ScreenAdapter {
 
@@ -33,24 +28,25 @@ public class GameScreen extends ScreenAdapter {
 
     //Set up items used for drawing
     private SpriteBatch batch = new SpriteBatch();
-    private ShapeRenderer shapeRenderer = new ShapeRenderer();
+    private final DebugOverlay debugOverlay = new DebugOverlay();    //Wireframes, 1 turns it on and off
+    private final ViewCuller viewCuller = new ViewCuller();          //Skips what the camera can't see
+    private int debugFrames = 0;                                     //Frames since the culling counts were logged
 
     //The wrapper we use to keep track of things
     private final RaumGame raumGame;
 
-    //Objects we keep track of
-    private Raum raum;                           //Player
-    private CollisionCell collisionCell;         //All the blocks
-    private Array<Skull> skulls = new Array<>(); //Collectibles
+    //Objects we keep track of, raum, the blocks and the skulls moved in fixed steps
+    private LevelSimulation simulation;
+    private final KeyboardControls controls = new KeyboardControls();    //Keys read once a frame for raum
+    private Texture skullTexture;
+    private final Array<Skull> foundSkulls = new Array<>(); //Reused for every query of the skulls
 
     //Music and SFX
     private Music music;
-    private Sound laserSound;
 
     //Tiled
     private TiledMap tiledMap;
-    private OrthogonalTiledMapRenderer orthogonalTiledMapRenderer;
-    private float levelWidth;
+    private CachedTiledMapRenderer tiledMapRenderer;    //The map baked in chunks
 
     /*
     Input: RaumGame
@@ -67,6 +63,18 @@ public class GameScreen extends ScreenAdapter {
     @Override
     public void resize(int width, int height){viewport.update(width, height);}
 
+    /*
+    Input: Void
+    Output: Void
+    Purpose: Gets rid of the baked map, the skull texture and the wireframe renderer if it was ever made
+    */
+    @Override
+    public void dispose(){
+        if(tiledMapRenderer != null){tiledMapRenderer.dispose();}
+        if(skullTexture != null){skullTexture.dispose();}
+        debugOverlay.dispose();
+    }
+
     /*
     Input: Void
     Output: Void
@@ -100,49 +108,21 @@ public class GameScreen extends ScreenAdapter {
     public void showObjects(){
         //Gets the map
         tiledMap = raumGame.getAssetManager().get("map.tmx");
-        //Makes it into a drawing that we can call
-        orthogonalTiledMapRenderer = new OrthogonalTiledMapRenderer(tiledMap, batch);
-        //Center the drawing based on the camera
-        orthogonalTiledMapRenderer.setView((OrthographicCamera) camera);
-
-        //Creates the skull collectibles
-        populateSkulls();
-        //Sets up all the cells that raum can interact with
-        collisionCell = new CollisionCell();
+        //Bakes it into a drawing once, only the parts the camera sees are drawn
+        tiledMapRenderer = new CachedTiledMapRenderer(tiledMap);
 
-        //Gets the data from tiledmap
-        TiledMapTileLayer tiledMapTileLayer = (TiledMapTileLayer) tiledMap.getLayers().get(0);
-        levelWidth = tiledMapTileLayer.getWidth() * tiledMapTileLayer.getTileWidth();
+        //Grab the skull texture
+        skullTexture = new Texture(Gdx.files.internal("Skull.png"));
 
-        //Creates player character
-        raum = new Raum((Texture) raumGame.getAssetManager().get("RaumSprite.png"), raumGame.getAssetManager().get("PunchOne.wav", Sound.class));
+        //Creates player character and the level around it, with the sound of collecting a skull
+        Raum raum = new Raum((Texture) raumGame.getAssetManager().get("RaumSprite.png"), raumGame.getAssetManager().get("PunchOne.wav", Sound.class));
+        simulation = new LevelSimulation(tiledMap, raum, skullTexture,
+                raumGame.getAssetManager().get("Laser.wav", Sound.class), WORLD_WIDTH);
 
         //Sets up the music
         music = raumGame.getAssetManager().get("VsMusic.wav", Music.class);
         music.setLooping(true);
         music.play();
-
-        //Set up sound
-        laserSound = raumGame.getAssetManager().get("Laser.wav", Sound.class);
-    }
-
-    /*
-    Input: Void
-    Output: Void
-    Purpose: Gets the skull layer from the tiled map and generates skull collectibles from it
-    */
-    private void populateSkulls(){
-        //Grab the skull texture
-        Texture skullTexture = new Texture(Gdx.files.internal("Skull.png"));
-
-        //Grab the layer from tiled map
-        MapLayer mapLayer = tiledMap.getLayers().get("Skulls");
-        //For each instance of that in the layered map create a skull collectible at it's position
-        for(MapObject mapObject : mapLayer.getObjects()){
-            skulls.add(new Skull(skullTexture,
-                    mapObject.getProperties().get("x",Float.class),
-                    mapObject.getProperties().get("y",Float.class)));
-        }
     }
 
     /*
@@ -154,55 +134,33 @@ public class GameScreen extends ScreenAdapter {
     public void render(float delta){
         update(delta);          //Update all objects
         clearScreen();          //Clear screen
-        draw();                 //Draw
+        float alpha = simulation.getAlpha();
+        updateCamera(alpha);    //Move camera to where raum is drawn
+        draw(alpha);            //Draw
         drawDebug();            //Draw wireframe
     }
 
     /*
-    Input: Void
+    Input: Delta
     Output: Void
-    Purpose: Central update function, updates player, camera, and collisons
+    Purpose: Central update function, runs as many fixed steps of the player, collisions and camera as the
+    frame time covers
     */
     public void update(float delta){
-        //Update raum's action and position
-        raum.update(delta, levelWidth);
-        //Updates raum's collision with environment
-        collisionCell.handleCollision(raum, tiledMap);
-        //Checks raum's collision for any collectible
-        playerCollectibleCollision();
-        //Update camera based on raum's position
-        updateCamera();
-    }
-
-    /*
-    Input: Void
-    Output: Void
-    Purpose: Checks if player hit any collectibles
-    */
-    private void playerCollectibleCollision(){
-        //Goes through all the collectibles
-        for(Iterator<Skull> iter = skulls.iterator(); iter.hasNext();){
-            Skull skull = iter.next();
-            //If the hit boxes overlap then remove collectible and play sound
-            if(raum.getHitBox().overlaps(skull.getHitBox())){
-                laserSound.play();
-                iter.remove();
-            }
-        }
+        //Turns the wireframes on and off
+        if(Gdx.input.isKeyJustPressed(Input.Keys.NUM_1)){debugOverlay.toggle();}
+        controls.sample();
+        simulation.advance(delta, controls);
     }
 
     /*
-    Input: Void
+    Input: How far between the last step and the next one
     Output: Void
-    Purpose: Updates the camera position
+    Purpose: Updates the camera position, part way between the last two steps like raum
     */
-    public void updateCamera(){
-        //Update if raum's postion is bigger or less than 240 or level widht - 240
-        if((raum.getX() > WORLD_WIDTH/2f) && (raum.getX() < levelWidth - WORLD_WIDTH/2f)) {
-            camera.position.set(raum.getX(), camera.position.y, camera.position.z);
-            camera.update();
-            orthogonalTiledMapRenderer.setView((OrthographicCamera) camera);
-        }
+    public void updateCamera(float alpha){
+        camera.position.set(simulation.getCameraX(alpha), camera.position.y, camera.position.z);
+        camera.update();
     }
 
     /*
@@ -218,34 +176,45 @@ public class GameScreen extends ScreenAdapter {
     /*
     Input: Void
     Output: Void
-    Purpose: Draws everything
+    Purpose: Draws everything, raum part way between the last step and the next one
     */
-    public void draw(){
+    public void draw(float alpha){
         //Set up camera
         batch.setProjectionMatrix(camera.projection);
         batch.setTransformMatrix(camera.view);
 
         //Draws tiled map
-        orthogonalTiledMapRenderer.render();
+        tiledMapRenderer.render((OrthographicCamera) camera);
 
         batch.begin();
-        for(Skull skull : skulls){skull.draw(batch);} //Draws skulls
-        raum.draw(batch);                             //Draws player
+        viewCuller.begin((OrthographicCamera) camera);
+        //Draws the skulls the camera can see, the grid already left out every other skull
+        SkullGrid skulls = simulation.getSkulls();
+        skulls.query(viewCuller.getView(), foundSkulls);
+        viewCuller.addSubmitted(foundSkulls.size);
+        viewCuller.addCulled(skulls.size() - foundSkulls.size);
+        for(int i = 0; i < foundSkulls.size; i++){foundSkulls.get(i).draw(batch);}
+        Raum raum = simulation.getRaum();
+        if(viewCuller.isVisible(raum.getHitBox())){raum.draw(batch, alpha);}   //Draws player
         batch.end();
     }
 
     /*
     Input: Void
     Output: Void
-    Purpose: Draws wireframe
+    Purpose: Draws wireframe, everything is collected first and drawn in one go. Nothing is done while the
+    overlay is off, while it is on the culling counts are logged once a second
     */
     public void drawDebug(){
-        shapeRenderer.setProjectionMatrix(camera.projection);
-        shapeRenderer.setTransformMatrix(camera.view);
-
-        shapeRenderer.begin(ShapeRenderer.ShapeType.Line);
-        //raum.drawDebug(shapeRenderer);
-        shapeRenderer.end();
+        if(!debugOverlay.isEnabled()){return;}
+        if(++debugFrames >= 60){
+            debugFrames = 0;
+            Gdx.app.log("GameScreen", "Sprites submitted " + viewCuller.getSubmitted() + " culled " + viewCuller.getCulled()
+                    + ", tile chunks drawn " + tiledMapRenderer.getChunksDrawn() + " culled " + tiledMapRenderer.getChunksCulled());
+        }
+        for(int i = 0; i < foundSkulls.size; i++){foundSkulls.get(i).drawDebug(debugOverlay);}  //Adds the skulls drawn this frame
+        simulation.getRaum().drawDebug(debugOverlay);               //Adds player
+        debugOverlay.flush(camera.combined);
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,37 @@
+package com.packt.raumgame;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Input;
+
+/*
+Input: Void
+Output: Void
+Purpose: Raum's buttons read from the keyboard, A and D to walk and space to jump. The keys are read once a
+frame by sample and every step run in that frame sees the same keys
+*/
+public class KeyboardControls implements RaumControls {
+
+    private boolean left = false;
+    private boolean right = false;
+    private boolean jump = false;
+
+    /*
+    Input: Void
+    Output: Void
+    Purpose: Reads the keys held down right now
+    */
+    public void sample() {
+        left = Gdx.input.isKeyPressed(Input.Keys.A);
+        right = Gdx.input.isKeyPressed(Input.Keys.D);
+        jump = Gdx.input.isKeyPressed(Input.Keys.SPACE);
+    }
+
+    @Override
+    public boolean isLeftPressed() { return left; }
+
+    @Override
+    public boolean isRightPressed() { return right; }
+
+    @Override
+    public boolean isJumpPressed() { return jump; }
+}
@@ -0,0 +1,162 @@
+package com.packt.raumgame;
+
+import com.badlogic.gdx.audio.Sound;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.maps.MapLayer;
+import com.badlogic.gdx.maps.MapObject;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+import com.badlogic.gdx.utils.Array;
+
+/*
+Input: Void
+Output: Void
+Purpose: Everything that happens in the level, raum, the tiles, the skulls and where the camera follows him,
+with nothing that draws. It moves in fixed steps of STEP seconds no matter how often it is advanced, so the
+level plays the same at 30, 60 or 144 frames a second and can be run with no window as fast as the computer
+can go. The time left over after the last step is kept so the screen can draw everything part way to the
+next step
+*/
+public class LevelSimulation {
+
+    public static final float STEP = 1 / 60f;
+    private static final float MAX_FRAME_TIME = 0.25f;    //Stops a long pause from running hundreds of steps
+
+    private float accumulator = 0;
+    private long steps = 0;
+
+    //Objects we keep track of
+    private final Raum raum;                              //Player
+    private final SweptCollision sweptCollision = new SweptCollision();    //Moves raum through the blocks
+    private final SolidTileIndex solidTiles;              //Which tiles are solid, built once from the map
+    private final SkullGrid skulls;                       //Collectibles, bucketed by tile
+    private final Array<Skull> touchedSkulls = new Array<>();    //Reused for every query around raum
+    private final Sound laserSound;
+    private final float levelWidth;
+
+    //Where the camera is centred in x after the last step and the one before, the camera only scrolls sideways
+    private final float viewWidth;
+    private float cameraX;
+    private float previousCameraX;
+
+    /*
+    Input: Map, Player, Skull texture and the sound of collecting one, Width the camera can see
+    Output: Void
+    Purpose: Builds the solid tiles and the skulls from the map and puts the camera at the start of the level
+    */
+    public LevelSimulation(TiledMap tiledMap, Raum raum, Texture skullTexture, Sound laserSound, float viewWidth){
+        this.raum = raum;
+        this.laserSound = laserSound;
+        this.viewWidth = viewWidth;
+
+        //Gets the data from tiledmap
+        TiledMapTileLayer tiledMapTileLayer = (TiledMapTileLayer) tiledMap.getLayers().get(0);
+        levelWidth = tiledMapTileLayer.getWidth() * tiledMapTileLayer.getTileWidth();
+        solidTiles = SolidTileIndex.build(tiledMapTileLayer);
+
+        //Creates the skull collectibles in buckets the size of a tile
+        skulls = new SkullGrid(levelWidth, tiledMapTileLayer.getHeight() * tiledMapTileLayer.getTileHeight(),
+                tiledMapTileLayer.getTileWidth());
+        populateSkulls(tiledMap, skullTexture);
+
+        cameraX = previousCameraX = viewWidth / 2f;
+    }
+
+    /*
+    Input: Map, Skull texture
+    Output: Void
+    Purpose: Gets the skull layer from the tiled map and generates skull collectibles from it
+    */
+    private void populateSkulls(TiledMap tiledMap, Texture skullTexture){
+        //Grab the layer from tiled map
+        MapLayer mapLayer = tiledMap.getLayers().get("Skulls");
+        //For each instance of that in the layered map create a skull collectible at it's position
+        for(MapObject mapObject : mapLayer.getObjects()){
+            skulls.add(new Skull(skullTexture,
+                    mapObject.getProperties().get("x",Float.class),
+                    mapObject.getProperties().get("y",Float.class)));
+        }
+    }
+
+    /*
+    Input: Time since the last frame, Buttons held
+    Output: Number of steps run
+    Purpose: Runs as many steps as the time covers and keeps what is left over for the next frame, every step
+    asks the controls again
+    */
+    public int advance(float delta, RaumControls controls){
+        int stepsRun = 0;
+        accumulator += Math.min(delta, MAX_FRAME_TIME);
+        while(accumulator >= STEP){
+            step(controls);
+            accumulator -= STEP;
+            stepsRun++;
+        }
+        return stepsRun;
+    }
+
+    /*
+    Input: Buttons held this step
+    Output: Void
+    Purpose: One step of the level, updates player, collisions, collectibles and camera
+    */
+    public void step(RaumControls controls){
+        steps++;
+        //Update raum's action and position, moving through the environment without passing through it
+        raum.update(STEP, levelWidth, controls, sweptCollision, solidTiles);
+        //Checks raum's collision for any collectible
+        playerCollectibleCollision();
+        //Update camera based on raum's position
+        updateCamera();
+    }
+
+    /*
+    Input: Void
+    Output: Void
+    Purpose: Checks if player hit any collectibles, only the skulls in the buckets around raum are looked at
+    */
+    private void playerCollectibleCollision(){
+        //Every skull found overlaps raum so it is collected
+        skulls.query(raum.getHitBox(), touchedSkulls);
+        for(int i = 0; i < touchedSkulls.size; i++){
+            laserSound.play();
+            skulls.remove(touchedSkulls.get(i));
+        }
+    }
+
+    /*
+    Input: Void
+    Output: Void
+    Purpose: Updates the camera position
+    */
+    private void updateCamera(){
+        previousCameraX = cameraX;
+        //Update if raum's postion is bigger or less than half the view or level width - half the view
+        if((raum.getX() > viewWidth/2f) && (raum.getX() < levelWidth - viewWidth/2f)) {
+            cameraX = raum.getX();
+        }
+    }
+
+    /*
+    Input: Void
+    Output: How far between the last step and the next one the time left over is, 0 to 1
+    Purpose: Lets everything be drawn part way to the next step
+    */
+    public float getAlpha(){ return accumulator / STEP; }
+
+    /*
+    Input: How far between the last step and the next one
+    Output: X the camera should be centred on
+    Purpose: Moves the camera smoothly between steps, the same way raum is drawn
+    */
+    public float getCameraX(float alpha){ return previousCameraX + (cameraX - previousCameraX) * alpha; }
+
+    /*
+    Getters
+     */
+    public long getSteps(){ return steps; }
+    public Raum getRaum(){ return raum; }
+    public SkullGrid getSkulls(){ return skulls; }
+    public SolidTileIndex getSolidTiles(){ return solidTiles; }
+    public float getLevelWidth(){ return levelWidth; }
+}
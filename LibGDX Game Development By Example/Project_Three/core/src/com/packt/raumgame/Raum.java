@@ -1,20 +1,18 @@
 package com.packt.raumgame;
 
-import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.Input;
 import com.badlogic.gdx.audio.Sound;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.Animation;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
-import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
 import com.badlogic.gdx.math.Rectangle;
 
-public class Raum {
+public class Raum implements TileActor {
 
-    //How fast the character will move if clicked
-    private static final float MAX_SPEED_X = 2;
-    private static final float MAX_SPEED_Y = 2;
+    //How fast the character will move if clicked, in pixels per second
+    private static final float MAX_SPEED_X = 120;
+    private static final float MAX_SPEED_Y = 120;
+    private static final float JUMP_HEIGHT = 45;    //How far up a jump can go before raum starts falling
 
     //The hit box
     private final Rectangle hitBox = new Rectangle(0,0, 16, 15);
@@ -26,6 +24,10 @@ public class Raum {
     private boolean jumpedFlag = false; //Tells us if character is in air
     private float jumpDistance = 0;     //How far from ground is the character
 
+    //Where the hit box was before the last update, used to draw between updates
+    private float previousX = 0;
+    private float previousY = 0;
+
     private Sound jumpSound;    //Sound effect
 
     //Animation and textures
@@ -55,36 +57,36 @@ public class Raum {
     }
 
     /*
-    Input: Delta for animation timing, float for how big the level is
+    Input: Delta for animation timing, float for how big the level is, Buttons held this step, Collision and
+    solid tiles to move through
     Output: Void
     Purpose: Update function, updates movement action and animation
     */
-    public void update(float delta, float levelWidth){
-        animationTimer += delta;            //Update animation time
-        updateMovement();                   //Update movement actions
-        checkIfWorldBound(levelWidth);      //Keep player in level bounds
+    public void update(float delta, float levelWidth, RaumControls controls, SweptCollision sweptCollision, SolidTileIndex solidTiles){
+        previousX = hitBox.x;
+        previousY = hitBox.y;
+        animationTimer += delta;                               //Update animation time
+        updateMovement(delta, controls, sweptCollision, solidTiles);     //Update movement actions
+        checkIfWorldBound(levelWidth);                         //Keep player in level bounds
     }
 
     /*
-    Input: Void
+    Input: Delta, Buttons held this step, Collision and solid tiles to move through
     Output: Void
     Purpose: Update the movement functions
     */
-    private void updateMovement(){
-        //Get the input
-        Input input = Gdx.input;
-
+    private void updateMovement(float delta, RaumControls controls, SweptCollision sweptCollision, SolidTileIndex solidTiles){
         //Update x movement
-        if(input.isKeyPressed(Input.Keys.D)){ xSpeed = MAX_SPEED_X;}
-        else if(input.isKeyPressed(Input.Keys.A)){xSpeed = -MAX_SPEED_X;}
+        if(controls.isRightPressed()){ xSpeed = MAX_SPEED_X;}
+        else if(controls.isLeftPressed()){xSpeed = -MAX_SPEED_X;}
         else {xSpeed = 0;}
 
         //Updates the Y movement, if jumped and is low enough make y movement higher
-        if (input.isKeyPressed(Input.Keys.SPACE) && !jumpedFlag) {
+        if (controls.isJumpPressed() && !jumpedFlag) {
             if(ySpeed != MAX_SPEED_Y){jumpSound.play();}
             ySpeed = MAX_SPEED_Y;
-            jumpDistance += ySpeed;
-            jumpedFlag = jumpDistance > 45;
+            jumpDistance += ySpeed * delta;
+            jumpedFlag = jumpDistance > JUMP_HEIGHT;
         }
         //Can no longer go higher and slowly falls down
         else{
@@ -92,9 +94,8 @@ public class Raum {
             jumpedFlag = jumpDistance > 0;
         }
 
-        //Update hitBox postilion
-        hitBox.x += xSpeed;
-        hitBox.y += ySpeed;
+        //Update hitBox postilion, stopping at the first tile in the way
+        sweptCollision.move(this, xSpeed * delta, ySpeed * delta, solidTiles);
     }
 
     /*
@@ -102,6 +103,7 @@ public class Raum {
     Output: Void
     Purpose: Update the position outside of the raum movement
     */
+    @Override
     public void updatePosition(float x, float y){
         hitBox.setX(x);
         hitBox.setY(y);
@@ -128,12 +130,21 @@ public class Raum {
     Output: Void
     Purpose: Makes sure we no longer move down
     */
+    @Override
     public void landed(){
         jumpedFlag = false;
         jumpDistance = 0;
         ySpeed = 0;
     }
 
+    /*
+    Input: Void
+    Output: Void
+    Purpose: Ends the jump when raum's head hits a tile
+    */
+    @Override
+    public void hitCeiling(){jumpedFlag = true;}
+
     /*
     Input: Void
     Output: Return x
@@ -160,14 +171,15 @@ public class Raum {
     Output: Return hitBox
     Purpose: Returns hitBox
     */
+    @Override
     public Rectangle getHitBox(){ return hitBox;}
 
     /*
-    Input: SpriteBatch
+    Input: SpriteBatch, How far between the last update and the next one
     Output: Void
-    Purpose: Draws the player
+    Purpose: Draws the player part way between where it was and where it is
     */
-    public void draw(SpriteBatch batch){
+    public void draw(SpriteBatch batch, float alpha){
         TextureRegion drawTexture = standing; //Preset to draw standing
         if(ySpeed > 0){drawTexture = jump;}  //Draw falling if y is being enough
         //Draw the movement animation
@@ -177,16 +189,16 @@ public class Raum {
             else if(xSpeed > 0 && drawTexture.isFlipX()){drawTexture.flip(true, false);}
         }
         //Draw the image
-        batch.draw(drawTexture, hitBox.x, hitBox.y);
+        batch.draw(drawTexture, previousX + (hitBox.x - previousX) * alpha, previousY + (hitBox.y - previousY) * alpha);
     }
 
     /*
-    Input: ShapeRenderer
+    Input: DebugOverlay
     Output: Void
-    Purpose: Draws the wireframe
+    Purpose: Adds the wireframe to the overlay
     */
-    public void drawDebug(ShapeRenderer shapeRenderer){
-        shapeRenderer.rect(hitBox.x, hitBox.y, hitBox.width, hitBox.height);
+    public void drawDebug(DebugOverlay debugOverlay){
+        debugOverlay.rect(hitBox.x, hitBox.y, hitBox.width, hitBox.height);
     }
 
 }
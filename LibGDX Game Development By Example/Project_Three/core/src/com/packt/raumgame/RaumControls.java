@@ -0,0 +1,20 @@
+package com.packt.raumgame;
+
+/*
+Input: Void
+Output: Void
+Purpose: Which of raum's buttons are held for a step of the level. The game fills it from the keyboard once a
+frame, and the level runner fills it from a script one step at a time, so the level never reads Gdx.input
+itself and plays the same however it is driven
+*/
+public interface RaumControls {
+
+    /*
+    Input: Void
+    Output: Boolean
+    Purpose: Walk left, walk right, jump
+    */
+    boolean isLeftPressed();
+    boolean isRightPressed();
+    boolean isJumpPressed();
+}
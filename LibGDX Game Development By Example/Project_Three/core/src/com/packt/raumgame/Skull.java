@@ -8,6 +8,7 @@ public class Skull {
 
     private Rectangle hitBox;   //Hit box
     private Texture texture;    //Texture
+    private int gridIndex = -1; //Where the SkullGrid keeps it, -1 when it is in no grid
 
     /*
     Input: Texture, Position
@@ -28,10 +29,31 @@ public class Skull {
     */
     public Rectangle getHitBox(){ return hitBox; }
 
+    /*
+    Input: Void
+    Output: Returns gridIndex
+    Purpose: Lets the SkullGrid find the skull again when it is removed
+    */
+    public int getGridIndex(){ return gridIndex; }
+
+    /*
+    Input: Index given by the SkullGrid
+    Output: Void
+    Purpose: Only set by the SkullGrid
+    */
+    void setGridIndex(int gridIndex){ this.gridIndex = gridIndex; }
+
     /*
     Input: SpriteBatch
     Output: Void
     Purpose: Draws the skull
     */
     public void draw(SpriteBatch batch){ batch.draw(texture, hitBox.getX(), hitBox.getY()); }
+
+    /*
+    Input: DebugOverlay
+    Output: Void
+    Purpose: Adds the hit box to the overlay
+    */
+    public void drawDebug(DebugOverlay debugOverlay){ debugOverlay.rect(hitBox.x, hitBox.y, hitBox.width, hitBox.height); }
 }
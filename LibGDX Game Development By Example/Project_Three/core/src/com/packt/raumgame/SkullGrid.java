@@ -0,0 +1,140 @@
+package com.packt.raumgame;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+
+/*
+Input: Void
+Output: Void
+Purpose: Keeps the skulls in a grid of tile sized buckets so only the skulls near a box have to be looked at,
+like the ones near Raum or the ones the camera can see. Each skull sits in the bucket of its bottom left
+corner and queries reach back one skull size to catch the ones that hang over from the buckets below and to
+the left. Removing a skull moves the last skull of its bucket into its place so it takes the same time no
+matter how many skulls there are, and nothing is made while querying or removing
+*/
+public class SkullGrid {
+
+    private final float bucketSize;
+    private final int columns;
+    private final int rows;
+
+    /*
+    Bucket of every cell of the grid, made the first time a skull goes in. Every skull is given an index when
+    it is added and remembers its bucket and where it is in that bucket
+     */
+    private final IntArray[] buckets;
+    private final Array<Skull> skulls = new Array<>();
+    private final IntArray skullBucket = new IntArray();
+    private final IntArray skullSlot = new IntArray();
+    private int size = 0;
+
+    //Biggest skull added, how far back the queries look
+    private float maxSkullWidth = 0;
+    private float maxSkullHeight = 0;
+
+    /*
+    Input: Size of the level, Size of a bucket
+    Output: Void
+    Purpose: Creates an empty grid that covers the level, skulls outside of it go in the edge buckets
+    */
+    public SkullGrid(float levelWidth, float levelHeight, float bucketSize) {
+        this.bucketSize = bucketSize;
+        columns = Math.max(1, MathUtils.ceil(levelWidth / bucketSize));
+        rows = Math.max(1, MathUtils.ceil(levelHeight / bucketSize));
+        buckets = new IntArray[columns * rows];
+    }
+
+    /*
+    Input: Skull
+    Output: Void
+    Purpose: Puts the skull in the bucket of its bottom left corner
+    */
+    public void add(Skull skull) {
+        Rectangle hitBox = skull.getHitBox();
+        int bucket = row(hitBox.y) * columns + column(hitBox.x);
+        if (buckets[bucket] == null) { buckets[bucket] = new IntArray(4); }
+
+        int index = skulls.size;
+        skull.setGridIndex(index);
+        skulls.add(skull);
+        skullBucket.add(bucket);
+        skullSlot.add(buckets[bucket].size);
+        buckets[bucket].add(index);
+        maxSkullWidth = Math.max(maxSkullWidth, hitBox.width);
+        maxSkullHeight = Math.max(maxSkullHeight, hitBox.height);
+        size++;
+    }
+
+    /*
+    Input: Skull
+    Output: Void
+    Purpose: Takes the skull out of its bucket by moving the last skull of the bucket into its place
+    */
+    public void remove(Skull skull) {
+        int index = skull.getGridIndex();
+        if (index < 0 || skulls.get(index) != skull) { return; }
+        IntArray bucket = buckets[skullBucket.get(index)];
+        int slot = skullSlot.get(index);
+        int moved = bucket.pop();
+        if (moved != index) {
+            bucket.set(slot, moved);
+            skullSlot.set(moved, slot);
+        }
+        skulls.set(index, null);
+        skull.setGridIndex(-1);
+        size--;
+    }
+
+    /*
+    Input: Box, Array to fill
+    Output: Void
+    Purpose: Clears the array and fills it with every skull whose hit box overlaps the box
+    */
+    public void query(Rectangle area, Array<Skull> found) {
+        query(area.x, area.y, area.width, area.height, found);
+    }
+
+    /*
+    Input: Bottom left corner, width and height of the box, Array to fill
+    Output: Void
+    Purpose: Clears the array and fills it with every skull whose hit box overlaps the box
+    */
+    public void query(float x, float y, float width, float height, Array<Skull> found) {
+        found.clear();
+        int firstColumn = column(x - maxSkullWidth);
+        int lastColumn = column(x + width);
+        int firstRow = row(y - maxSkullHeight);
+        int lastRow = row(y + height);
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int column = firstColumn; column <= lastColumn; column++) {
+                IntArray bucket = buckets[row * columns + column];
+                if (bucket == null) { continue; }
+                for (int i = 0; i < bucket.size; i++) {
+                    Skull skull = skulls.get(bucket.get(i));
+                    Rectangle hitBox = skull.getHitBox();
+                    if (hitBox.x < x + width && hitBox.x + hitBox.width > x
+                            && hitBox.y < y + height && hitBox.y + hitBox.height > y) {
+                        found.add(skull);
+                    }
+                }
+            }
+        }
+    }
+
+    /*
+    Input: Void
+    Output: Number of skulls in the grid
+    Purpose: Tells us how many are left to collect
+    */
+    public int size() { return size; }
+
+    /*
+    Input: X or Y in the level
+    Output: Column or row, kept inside the grid
+    Purpose: Finds the bucket a position falls in
+    */
+    private int column(float x) { return MathUtils.clamp(MathUtils.floor(x / bucketSize), 0, columns - 1); }
+    private int row(float y) { return MathUtils.clamp(MathUtils.floor(y / bucketSize), 0, rows - 1); }
+}
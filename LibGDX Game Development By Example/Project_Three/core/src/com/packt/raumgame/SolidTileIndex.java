@@ -0,0 +1,121 @@
+package com.packt.raumgame;
+
+import com.badlogic.gdx.maps.MapProperties;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+
+/*
+Input: Void
+Output: Void
+Purpose: Which tiles of the level are solid, kept as one row of bits per tile row so asking about a tile is a
+shift and a mask instead of walking the map objects. It is built once from the tile layer when the map is
+loaded, along with a few flags per tile read from the tile set properties so collision never has to look at
+MapProperties
+*/
+public class SolidTileIndex {
+
+    /*
+    Tile flags, set in the tile set with bool properties of the same name
+     */
+    public static final int ONE_WAY = 1;    //"oneWay", can be walked through and jumped through but landed on
+    public static final int HAZARD = 2;     //"hazard", hurts whoever touches it
+
+    private final int width;
+    private final int height;
+    private final float tileWidth;
+    private final float tileHeight;
+    private final int wordsPerRow;
+    private final long[] solid;    //Row y starts at y * wordsPerRow, tile x is bit x % 64 of word x / 64
+    private final byte[] flags;    //One entry per tile, row by row
+
+    /*
+    Input: Size of the layer in tiles, Size of a tile
+    Output: Void
+    Purpose: Creates an index with no solid tiles
+    */
+    public SolidTileIndex(int width, int height, float tileWidth, float tileHeight) {
+        this.width = width;
+        this.height = height;
+        this.tileWidth = tileWidth;
+        this.tileHeight = tileHeight;
+        wordsPerRow = (width + 63) / 64;
+        solid = new long[wordsPerRow * height];
+        flags = new byte[width * height];
+    }
+
+    /*
+    Input: Tile layer
+    Output: Index of the layer
+    Purpose: Every cell with a tile is solid unless its tile has a "solid" property set to false, the flags
+    come from the tile's properties
+    */
+    public static SolidTileIndex build(TiledMapTileLayer layer) {
+        SolidTileIndex index = new SolidTileIndex(layer.getWidth(), layer.getHeight(), layer.getTileWidth(), layer.getTileHeight());
+        for (int y = 0; y < layer.getHeight(); y++) {
+            for (int x = 0; x < layer.getWidth(); x++) {
+                TiledMapTileLayer.Cell cell = layer.getCell(x, y);
+                if (cell == null || cell.getTile() == null) { continue; }
+                MapProperties properties = cell.getTile().getProperties();
+                if (!readFlag(properties, "solid", true)) { continue; }
+                int tileFlags = 0;
+                if (readFlag(properties, "oneWay", false)) { tileFlags |= ONE_WAY; }
+                if (readFlag(properties, "hazard", false)) { tileFlags |= HAZARD; }
+                index.setSolid(x, y, tileFlags);
+            }
+        }
+        return index;
+    }
+
+    /*
+    Input: Tile properties, Name of the property, Value if it isn't there
+    Output: Boolean
+    Purpose: Reads a bool property. Tiled only gives us a Boolean when the property has type="bool", older
+    versions and hand edited tile sets leave it as the text "true" or "false". Anything else is the default
+    */
+    private static boolean readFlag(MapProperties properties, String name, boolean defaultValue) {
+        Object value = properties.get(name);
+        if (value instanceof Boolean) { return (Boolean) value; }
+        if (value instanceof String) {
+            String text = ((String) value).trim();
+            if (text.equalsIgnoreCase("true")) { return true; }
+            if (text.equalsIgnoreCase("false")) { return false; }
+        }
+        return defaultValue;
+    }
+
+    /*
+    Input: Tile column and row, Flags of the tile
+    Output: Void
+    Purpose: Marks a tile as solid
+    */
+    public void setSolid(int x, int y, int tileFlags) {
+        solid[y * wordsPerRow + (x >>> 6)] |= 1L << (x & 63);
+        flags[y * width + x] = (byte) tileFlags;
+    }
+
+    /*
+    Input: Tile column and row
+    Output: Boolean
+    Purpose: Tells us if the tile is solid, tiles outside the layer are not
+    */
+    public boolean isSolid(int x, int y) {
+        if (x < 0 || y < 0 || x >= width || y >= height) { return false; }
+        return (solid[y * wordsPerRow + (x >>> 6)] >>> (x & 63) & 1L) != 0;
+    }
+
+    /*
+    Input: Tile column and row, Flag
+    Output: Boolean
+    Purpose: Tells us if a solid tile has the flag
+    */
+    public boolean hasFlag(int x, int y, int flag) {
+        return isSolid(x, y) && (flags[y * width + x] & flag) != 0;
+    }
+
+    /*
+    Getters
+     */
+    public int getWidth() { return width; }
+    public int getHeight() { return height; }
+    public float getTileWidth() { return tileWidth; }
+    public float getTileHeight() { return tileHeight; }
+}
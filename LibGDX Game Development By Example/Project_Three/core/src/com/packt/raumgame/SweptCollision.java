@@ -0,0 +1,193 @@
+package com.packt.raumgame;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Rectangle;
+
+/*
+Input: Void
+Output: Void
+Purpose: Moves an actor through the solid tiles without ever letting it pass through one, however far it moves
+in a frame. Instead of moving first and pushing the actor back out like CollisionCell, every tile edge the hit
+box would cross is looked at in order and the move stops at the first solid one, the time of impact. The move
+is split into sub steps no longer than half a tile, x then y in each, so sliding along a wall or a floor takes
+the same path as many small moves would. There are never more than MAX_SUB_STEPS sub steps, past that they
+just get longer, which is still safe since each one is swept. One way tiles only stop the actor falling onto
+them from above. An actor pressing against a wall whose feet are nearly at the top of a tile is put on top of
+it, the way CollisionCell pushes up when the overlap is wider than it is tall, which is what lets raum climb
+the cliffs of the level by jumping against them
+*/
+public class SweptCollision {
+
+    public static final int MAX_SUB_STEPS = 8;
+
+    //How far inside a tile edge still counts as touching it, keeps float error from catching floors and walls
+    private static final float EPSILON = 0.001f;
+
+    /*
+    Input: Void
+    Output: Void
+    Purpose: Constructor used for putting this class in the GameScreen, one is enough for every actor
+    */
+    public SweptCollision(){}
+
+    /*
+    Input: Actor, How far it wants to move in x and y, Solid tiles of the map
+    Output: Void
+    Purpose: Moves the actor as far as it can go towards where it wants to be. Tells it that it landed if a
+    tile stops it going down and that it hit the ceiling if one stops it going up
+    */
+    public void move(TileActor actor, float moveX, float moveY, SolidTileIndex solidTiles){
+        Rectangle hitBox = actor.getHitBox();
+        float x = hitBox.x;
+        float y = hitBox.y;
+
+        float maxStep = Math.min(solidTiles.getTileWidth(), solidTiles.getTileHeight()) / 2f;
+        int steps = MathUtils.clamp(MathUtils.ceil(Math.max(Math.abs(moveX), Math.abs(moveY)) / maxStep), 1, MAX_SUB_STEPS);
+        float stepX = moveX / steps;
+        float stepY = moveY / steps;
+        boolean landed = false;
+        boolean hitCeiling = false;
+
+        for(int i = 0; i < steps && (stepX != 0 || stepY != 0); i++){
+            if(stepX != 0){
+                float movedX = sweepX(x, y, hitBox.width, hitBox.height, stepX, solidTiles);
+                if(movedX != stepX){
+                    //Against a wall, climb onto it if the feet are close enough to the top of a tile
+                    float lift = stepUp(x + movedX, y, hitBox.width, hitBox.height, stepX, solidTiles);
+                    if(lift > 0){
+                        y += lift;
+                        landed = true;
+                        movedX = sweepX(x, y, hitBox.width, hitBox.height, stepX, solidTiles);
+                    }
+                    if(movedX != stepX){ stepX = 0; }    //Still against a wall, stop going that way
+                }
+                x += movedX;
+            }
+            if(stepY != 0){
+                float movedY = sweepY(x, y, hitBox.width, hitBox.height, stepY, solidTiles);
+                if(movedY != stepY){
+                    landed = stepY < 0;
+                    hitCeiling = stepY > 0;
+                    stepY = 0;
+                }
+                y += movedY;
+            }
+        }
+
+        actor.updatePosition(x, y);
+        if(landed){ actor.landed(); }
+        if(hitCeiling){ actor.hitCeiling(); }
+    }
+
+    /*
+    Input: Hit box, How far it moves in x, Solid tiles
+    Output: How far it can move before its leading side meets a wall
+    Purpose: Looks at the columns the leading side crosses, nearest first, in the rows the hit box covers
+    */
+    private static float sweepX(float x, float y, float width, float height, float moveX, SolidTileIndex solidTiles){
+        float tileWidth = solidTiles.getTileWidth();
+        int firstRow = MathUtils.floor((y + EPSILON) / solidTiles.getTileHeight());
+        int lastRow = MathUtils.floor((y + height - EPSILON) / solidTiles.getTileHeight());
+
+        if(moveX > 0){
+            float edge = x + width;
+            int last = MathUtils.ceil((edge + moveX) / tileWidth) - 1;
+            for(int column = MathUtils.ceil((edge - EPSILON) / tileWidth); column <= last; column++){
+                if(isWall(column, firstRow, lastRow, solidTiles)){ return column * tileWidth - edge; }
+            }
+        }
+        else {
+            int last = MathUtils.floor((x + moveX) / tileWidth);
+            for(int column = MathUtils.floor((x + EPSILON) / tileWidth) - 1; column >= last; column--){
+                if(isWall(column, firstRow, lastRow, solidTiles)){ return (column + 1) * tileWidth - x; }
+            }
+        }
+        return moveX;
+    }
+
+    /*
+    Input: Hit box pressed against a wall, How far it wanted to move in x, Solid tiles
+    Output: How far up it goes to stand on the tile it is pressing against, 0 if it can't
+    Purpose: There has to be a tile next to the feet, the feet have to be no further below its top than the
+    actor is moving sideways, and there has to be room above. The sides of the level can't be climbed
+    */
+    private static float stepUp(float x, float y, float width, float height, float moveX, SolidTileIndex solidTiles){
+        float tileHeight = solidTiles.getTileHeight();
+        int row = MathUtils.floor((y + EPSILON) / tileHeight);
+        int column = moveX > 0 ? MathUtils.floor((x + width + EPSILON) / solidTiles.getTileWidth())
+                : MathUtils.floor((x - EPSILON) / solidTiles.getTileWidth());
+        if(!solidTiles.isSolid(column, row) || solidTiles.hasFlag(column, row, SolidTileIndex.ONE_WAY)){ return 0; }
+        float lift = (row + 1) * tileHeight - y;
+        if(lift > Math.abs(moveX) + EPSILON){ return 0; }
+        if(sweepY(x, y, width, height, lift, solidTiles) != lift){ return 0; }
+        return lift;
+    }
+
+    /*
+    Input: Hit box, How far it moves in y, Solid tiles
+    Output: How far it can move before its leading side meets a floor or a ceiling
+    Purpose: Looks at the rows the leading side crosses, nearest first, in the columns the hit box covers. One
+    way tiles are floors but never ceilings
+    */
+    private static float sweepY(float x, float y, float width, float height, float moveY, SolidTileIndex solidTiles){
+        float tileHeight = solidTiles.getTileHeight();
+        int firstColumn = MathUtils.floor((x + EPSILON) / solidTiles.getTileWidth());
+        int lastColumn = MathUtils.floor((x + width - EPSILON) / solidTiles.getTileWidth());
+
+        if(moveY > 0){
+            float edge = y + height;
+            int last = MathUtils.ceil((edge + moveY) / tileHeight) - 1;
+            for(int row = MathUtils.ceil((edge - EPSILON) / tileHeight); row <= last; row++){
+                if(isCeiling(row, firstColumn, lastColumn, solidTiles)){ return row * tileHeight - edge; }
+            }
+        }
+        else {
+            int last = MathUtils.floor((y + moveY) / tileHeight);
+            for(int row = MathUtils.floor((y + EPSILON) / tileHeight) - 1; row >= last; row--){
+                if(isFloor(row, firstColumn, lastColumn, solidTiles)){ return (row + 1) * tileHeight - y; }
+            }
+        }
+        return moveY;
+    }
+
+    /*
+    Input: Column, Rows the hit box covers, Solid tiles
+    Output: Boolean
+    Purpose: A column blocks sideways movement if any of the rows has a solid tile that isn't one way. The
+    sides of the level are walls too, so nothing can get around the tiles outside of the level and be put back
+    inside them when it is kept in bounds
+    */
+    private static boolean isWall(int column, int firstRow, int lastRow, SolidTileIndex solidTiles){
+        if(column < 0 || column >= solidTiles.getWidth()){ return true; }
+        for(int row = firstRow; row <= lastRow; row++){
+            if(solidTiles.isSolid(column, row) && !solidTiles.hasFlag(column, row, SolidTileIndex.ONE_WAY)){ return true; }
+        }
+        return false;
+    }
+
+    /*
+    Input: Row, Columns the hit box covers, Solid tiles
+    Output: Boolean
+    Purpose: A row stops the actor going up if any of the columns has a solid tile that isn't one way
+    */
+    private static boolean isCeiling(int row, int firstColumn, int lastColumn, SolidTileIndex solidTiles){
+        for(int column = firstColumn; column <= lastColumn; column++){
+            if(solidTiles.isSolid(column, row) && !solidTiles.hasFlag(column, row, SolidTileIndex.ONE_WAY)){ return true; }
+        }
+        return false;
+    }
+
+    /*
+    Input: Row, Columns the hit box covers, Solid tiles
+    Output: Boolean
+    Purpose: A row stops the actor falling if any of the columns has a solid tile, the bottom of the level is a
+    floor the whole way across
+    */
+    private static boolean isFloor(int row, int firstColumn, int lastColumn, SolidTileIndex solidTiles){
+        if(row < 0){ return true; }
+        for(int column = firstColumn; column <= lastColumn; column++){
+            if(solidTiles.isSolid(column, row)){ return true; }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,40 @@
+package com.packt.raumgame;
+
+import com.badlogic.gdx.math.Rectangle;
+
+/*
+Input: Void
+Output: Void
+Purpose: Anything that moves through the tiles with a hit box, either swept through them by SweptCollision or
+pushed out of them by CollisionCell. Raum is one and the collision stress test makes thousands more
+*/
+public interface TileActor {
+
+    /*
+    Input: Void
+    Output: Returns hitBox
+    Purpose: Where the actor is and how big it is
+    */
+    Rectangle getHitBox();
+
+    /*
+    Input: New float X and Y
+    Output: Void
+    Purpose: Moves the actor out of a tile
+    */
+    void updatePosition(float x, float y);
+
+    /*
+    Input: Void
+    Output: Void
+    Purpose: Tells the actor it is standing on a tile
+    */
+    void landed();
+
+    /*
+    Input: Void
+    Output: Void
+    Purpose: Tells the actor a tile stopped it going up
+    */
+    void hitCeiling();
+}
@@ -0,0 +1,68 @@
+package com.packt.raumgame;
+
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.math.Rectangle;
+
+/*
+Input: Void
+Output: Void
+Purpose: Decides what is worth sending to the SpriteBatch by testing bounds against the rectangle the camera
+can see, so the vertices sent and the pixels filled follow what is on screen and not the size of the level.
+Counts how many sprites were submitted and how many were culled since begin was called
+*/
+public class ViewCuller {
+
+    private final Rectangle view = new Rectangle();
+    private int submitted = 0;
+    private int culled = 0;
+
+    /*
+    Input: Camera
+    Output: Void
+    Purpose: Takes the camera's view for this frame and resets the counters, call it once before drawing
+    */
+    public void begin(OrthographicCamera camera) {
+        float width = camera.viewportWidth * camera.zoom;
+        float height = camera.viewportHeight * camera.zoom;
+        view.set(camera.position.x - width / 2f, camera.position.y - height / 2f, width, height);
+        submitted = 0;
+        culled = 0;
+    }
+
+    /*
+    Input: Bounds
+    Output: Boolean
+    Purpose: Tells us if any of the bounds are in view and counts the answer
+    */
+    public boolean isVisible(Rectangle bounds) {
+        return isVisible(bounds.x, bounds.y, bounds.width, bounds.height);
+    }
+
+    /*
+    Input: Bottom left corner, width and height
+    Output: Boolean
+    Purpose: Tells us if any of the box is in view and counts the answer
+    */
+    public boolean isVisible(float x, float y, float width, float height) {
+        boolean visible = x < view.x + view.width && x + width > view.x && y < view.y + view.height && y + height > view.y;
+        if (visible) { submitted++; }
+        else { culled++; }
+        return visible;
+    }
+
+    /*
+    Input: Number of sprites
+    Output: Void
+    Purpose: Counts sprites that were culled or submitted in bulk, for when something like the SkullGrid
+    already found what is in view
+    */
+    public void addSubmitted(int count) { submitted += count; }
+    public void addCulled(int count) { culled += count; }
+
+    /*
+    Getters
+     */
+    public Rectangle getView() { return view; }
+    public int getSubmitted() { return submitted; }
+    public int getCulled() { return culled; }
+}
@@ -0,0 +1,279 @@
+package com.packt.raumgame.desktop;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+import com.badlogic.gdx.maps.tiled.TmxMapLoader;
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.math.Rectangle;
+import com.packt.raumgame.CollisionCell;
+import com.packt.raumgame.SolidTileIndex;
+import com.packt.raumgame.SweptCollision;
+import com.packt.raumgame.TileActor;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+/*
+Input: Options as name=value pairs, all optional
+    actors=100,1000,10000 frames=600 seed=1 resolver=swept speed=2
+Output: Void
+Purpose: Stress mode for the tile collision. Loads map.tmx with no window, drops the given numbers of
+actors that move and jump like Raum into the level and runs the collision for every one of them every
+frame. Prints the time per frame and per actor, which should stay flat per actor as the count goes up, and
+the bytes allocated per frame, which should be 0. The resolver is swept, which Raum uses, or overlap for the
+old CollisionCell, and speed is how many pixels the actors move per frame. Actors that end up inside a solid
+tile have gone through the floor or a wall and are counted as tunnelled
+*/
+public class CollisionStress {
+
+    private static final int WARM_UP_FRAMES = 300;
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    public static void main(String[] arg) {
+        final Settings settings = new Settings(arg);
+        new HeadlessApplication(new ApplicationAdapter() {
+            @Override
+            public void create() {
+                try { run(settings); }
+                finally { Gdx.app.exit(); }
+            }
+        }, new HeadlessApplicationConfiguration());
+    }
+
+    /*
+    Input: Settings
+    Output: Void
+    Purpose: Runs every actor count in turn and prints a line for each
+    */
+    private static void run(Settings settings) {
+        installNoOpGL();
+        TiledMap tiledMap = new TmxMapLoader().load("map.tmx");
+        TiledMapTileLayer layer = (TiledMapTileLayer) tiledMap.getLayers().get(0);
+        float levelWidth = layer.getWidth() * layer.getTileWidth();
+        float levelHeight = layer.getHeight() * layer.getTileHeight();
+        SolidTileIndex solidTiles = SolidTileIndex.build(layer);
+        Resolver resolver = new Resolver(settings.swept, solidTiles);
+
+        System.out.printf("%8s %12s %12s %14s %10s%n", "actors", "us/frame", "ns/actor", "bytes/frame", "tunnelled");
+        for (int count : settings.actors) {
+            RandomXS128 random = new RandomXS128(settings.seed);
+            StressActor[] actors = new StressActor[count];
+            for (int i = 0; i < count; i++) {
+                actors[i] = new StressActor(random.nextLong(), random.nextFloat() * (levelWidth - 16), levelHeight - 16, settings.speed);
+            }
+            runFrames(actors, resolver, levelWidth, WARM_UP_FRAMES);
+
+            long allocatedBefore = allocatedBytes();
+            long start = System.nanoTime();
+            runFrames(actors, resolver, levelWidth, settings.frames);
+            long nanos = System.nanoTime() - start;
+            long allocated = allocatedBytes() - allocatedBefore;
+
+            System.out.printf("%8d %12.1f %12.1f %14d %10d%n", count, nanos / 1e3 / settings.frames,
+                    (double) nanos / settings.frames / count, allocated / settings.frames, countTunnelled(actors, solidTiles));
+        }
+        tiledMap.dispose();
+    }
+
+    /*
+    Input: Actors, Collision, Level width, Number of frames
+    Output: Void
+    Purpose: Moves every actor through the tiles, the same as Raum.update does
+    */
+    private static void runFrames(StressActor[] actors, Resolver resolver, float levelWidth, int frames) {
+        for (int frame = 0; frame < frames; frame++) {
+            for (StressActor actor : actors) {
+                actor.update(levelWidth, resolver);
+            }
+        }
+    }
+
+    /*
+    Input: Actors, Solid tiles
+    Output: Number of actors whose middle is inside a solid tile
+    Purpose: Shows if the collision let anyone through the floor or a wall
+    */
+    private static int countTunnelled(StressActor[] actors, SolidTileIndex solidTiles) {
+        int tunnelled = 0;
+        for (StressActor actor : actors) {
+            Rectangle hitBox = actor.getHitBox();
+            int column = (int) Math.floor((hitBox.x + hitBox.width / 2) / solidTiles.getTileWidth());
+            int row = (int) Math.floor((hitBox.y + hitBox.height / 2) / solidTiles.getTileHeight());
+            if (solidTiles.isSolid(column, row)) { tunnelled++; }
+        }
+        return tunnelled;
+    }
+
+    /*
+    Input: Void
+    Output: Void
+    Purpose: The headless backend has no GL, but loading the map makes textures for the tile set. Every GL
+    call is answered with nothing so the textures are made without being uploaded anywhere
+    */
+    static void installNoOpGL() {
+        Gdx.gl = Gdx.gl20 = (GL20) Proxy.newProxyInstance(GL20.class.getClassLoader(), new Class<?>[]{GL20.class},
+                new InvocationHandler() {
+                    @Override
+                    public Object invoke(Object proxy, Method method, Object[] args) {
+                        Class<?> type = method.getReturnType();
+                        if (type == int.class) { return 0; }
+                        if (type == float.class) { return 0f; }
+                        if (type == boolean.class) { return false; }
+                        return null;
+                    }
+                });
+    }
+
+    /*
+    Input: Void
+    Output: Bytes this thread has allocated so far
+    Purpose: Lets the stress test show that a frame makes no garbage
+    */
+    private static long allocatedBytes() {
+        return THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /*
+    Input: Void
+    Output: Void
+    Purpose: Moves like Raum with the same jump height, but walks and jumps by itself at the given speed
+    */
+    private static class StressActor implements TileActor {
+        private final Rectangle hitBox = new Rectangle(0, 0, 16, 15);
+        private final RandomXS128 random;
+        private final float maxSpeedY;
+        private float xSpeed;
+        private boolean jumpHeld = false;
+        private boolean jumpedFlag = false;
+        private float jumpDistance = 0;
+
+        StressActor(long seed, float x, float y, float speed) {
+            random = new RandomXS128(seed);
+            hitBox.setPosition(x, y);
+            xSpeed = speed;
+            maxSpeedY = speed;
+        }
+
+        /*
+        Input: Level width, Collision
+        Output: Void
+        Purpose: Raum.updateMovement and Raum.checkIfWorldBound with random keys instead of the keyboard
+        */
+        void update(float levelWidth, Resolver resolver) {
+            if (random.nextInt(60) == 0) { xSpeed = -xSpeed; }
+            if (random.nextInt(30) == 0) { jumpHeld = !jumpHeld; }
+
+            float ySpeed;
+            if (jumpHeld && !jumpedFlag) {
+                ySpeed = maxSpeedY;
+                jumpDistance += ySpeed;
+                jumpedFlag = jumpDistance > 45;
+            }
+            else {
+                ySpeed = -maxSpeedY;
+                jumpedFlag = jumpDistance > 0;
+            }
+            resolver.move(this, xSpeed, ySpeed);
+
+            if (hitBox.x < 0) { hitBox.x = 0; }
+            else if (hitBox.x + hitBox.width > levelWidth) { hitBox.x = (int) (levelWidth - hitBox.getWidth()); }
+            if (hitBox.y < 0) {
+                hitBox.y = 0;
+                landed();
+            }
+            resolver.pushOut(this);
+        }
+
+        @Override
+        public Rectangle getHitBox() { return hitBox; }
+
+        @Override
+        public void updatePosition(float x, float y) { hitBox.setPosition(x, y); }
+
+        @Override
+        public void landed() {
+            jumpedFlag = false;
+            jumpDistance = 0;
+        }
+
+        @Override
+        public void hitCeiling() { jumpedFlag = true; }
+    }
+
+    /*
+    Input: Void
+    Output: Void
+    Purpose: Either sweeps the actors through the tiles like Raum does now, or moves them and pushes them out
+    afterwards with CollisionCell like Raum used to
+    */
+    private static class Resolver {
+        private final boolean swept;
+        private final SolidTileIndex solidTiles;
+        private final SweptCollision sweptCollision = new SweptCollision();
+        private final CollisionCell collisionCell = new CollisionCell();
+
+        Resolver(boolean swept, SolidTileIndex solidTiles) {
+            this.swept = swept;
+            this.solidTiles = solidTiles;
+        }
+
+        void move(TileActor actor, float moveX, float moveY) {
+            if (swept) { sweptCollision.move(actor, moveX, moveY, solidTiles); }
+            else {
+                Rectangle hitBox = actor.getHitBox();
+                actor.updatePosition(hitBox.x + moveX, hitBox.y + moveY);
+            }
+        }
+
+        void pushOut(TileActor actor) {
+            if (!swept) { collisionCell.handleCollision(actor, solidTiles); }
+        }
+    }
+
+    /*
+    Input: Void
+    Output: Void
+    Purpose: Parses the command line options
+    */
+    private static class Settings {
+        int[] actors = {100, 1000, 10000};
+        int frames = 600;
+        long seed = 1;
+        boolean swept = true;
+        float speed = 2;
+
+        Settings(String[] arg) {
+            for (String option : arg) {
+                String[] pair = option.split("=", 2);
+                if (pair.length != 2) { throw new IllegalArgumentException("Expected name=value but got " + option); }
+                switch (pair[0]) {
+                    case "actors": {
+                        String[] counts = pair[1].split(",");
+                        actors = new int[counts.length];
+                        for (int i = 0; i < counts.length; i++) { actors[i] = Integer.parseInt(counts[i]); }
+                    }
+                    break;
+                    case "frames": frames = Integer.parseInt(pair[1]); break;
+                    case "seed": seed = Long.parseLong(pair[1]); break;
+                    case "speed": speed = Float.parseFloat(pair[1]); break;
+                    case "resolver": {
+                        if (!pair[1].equals("swept") && !pair[1].equals("overlap")) {
+                            throw new IllegalArgumentException("Expected swept or overlap but got " + pair[1]);
+                        }
+                        swept = pair[1].equals("swept");
+                    }
+                    break;
+                    default: throw new IllegalArgumentException("Unknown option " + pair[0]);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.packt.raumgame.desktop;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TmxMapLoader;
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.math.Rectangle;
+import com.packt.raumgame.LevelSimulation;
+import com.packt.raumgame.Raum;
+import com.packt.raumgame.RaumControls;
+
+import java.util.Arrays;
+
+/*
+Input: Options as name=value pairs, all optional
+    rates=30,60,144 seconds=120 seed=1
+Output: Void
+Purpose: Plays the level with no window as fast as it can go. Raum is steered through RaumControls by a
+seeded random script, one set of buttons per step, and the level is advanced as if the game ran at each of the
+given frame rates. Prints where raum ended up, how many skulls are left and how much faster than real time the
+level ran, then checks that every step the runs have in common put raum in the same place
+*/
+public class LevelRunner {
+
+    private static final float WORLD_WIDTH = 640;    //Width the camera sees in GameScreen
+
+    public static void main(String[] arg) {
+        final Settings settings = new Settings(arg);
+        new HeadlessApplication(new ApplicationAdapter() {
+            @Override
+            public void create() {
+                try { run(settings); }
+                finally { Gdx.app.exit(); }
+            }
+        }, new HeadlessApplicationConfiguration());
+    }
+
+    /*
+    Input: Settings
+    Output: Void
+    Purpose: Runs the level once per frame rate and compares the runs
+    */
+    private static void run(Settings settings) {
+        CollisionStress.installNoOpGL();
+        TmxMapLoader mapLoader = new TmxMapLoader();
+        int maxSteps = Math.round(settings.seconds / LevelSimulation.STEP) + 1;
+        float[][] traces = new float[settings.rates.length][];
+
+        System.out.printf("%6s %8s %8s %10s %10s %8s %10s %10s%n",
+                "rate", "frames", "steps", "raum x", "raum y", "skulls", "ms", "x realtime");
+        for (int i = 0; i < settings.rates.length; i++) {
+            TiledMap tiledMap = mapLoader.load("map.tmx");
+            Texture raumTexture = new Texture("RaumSprite.png");
+            Texture skullTexture = new Texture("Skull.png");
+            LevelSimulation simulation = new LevelSimulation(tiledMap,
+                    new Raum(raumTexture, Gdx.audio.newSound(Gdx.files.internal("PunchOne.wav"))),
+                    skullTexture, Gdx.audio.newSound(Gdx.files.internal("Laser.wav")), WORLD_WIDTH);
+            ScriptedControls controls = new ScriptedControls(settings.seed, simulation);
+
+            int rate = settings.rates[i];
+            int frames = Math.round(settings.seconds * rate);
+            float[] trace = new float[maxSteps * 2];
+            Arrays.fill(trace, Float.NaN);
+            Rectangle hitBox = simulation.getRaum().getHitBox();
+
+            long start = System.nanoTime();
+            for (int frame = 0; frame < frames; frame++) {
+                if (simulation.advance(1f / rate, controls) > 0 && simulation.getSteps() < maxSteps) {
+                    int step = (int) simulation.getSteps();
+                    trace[step * 2] = hitBox.x;
+                    trace[step * 2 + 1] = hitBox.y;
+                }
+            }
+            long nanos = System.nanoTime() - start;
+            traces[i] = trace;
+
+            System.out.printf("%6d %8d %8d %10.3f %10.3f %8d %10.1f %10.0f%n", rate, frames, simulation.getSteps(),
+                    hitBox.x, hitBox.y, simulation.getSkulls().size(), nanos / 1e6,
+                    simulation.getSteps() * LevelSimulation.STEP / (nanos / 1e9));
+
+            skullTexture.dispose();
+            raumTexture.dispose();
+            tiledMap.dispose();
+        }
+        compare(settings.rates, traces, maxSteps);
+    }
+
+    /*
+    Input: Frame rates, Where raum was after each step of each run, Number of steps kept
+    Output: Void
+    Purpose: Prints how many steps were seen by every run and how many of those didn't agree
+    */
+    private static void compare(int[] rates, float[][] traces, int maxSteps) {
+        int compared = 0;
+        int differ = 0;
+        int firstDiffer = -1;
+        for (int step = 1; step < maxSteps; step++) {
+            boolean inEveryRun = true;
+            for (float[] trace : traces) { inEveryRun &= !Float.isNaN(trace[step * 2]); }
+            if (!inEveryRun) { continue; }
+            compared++;
+            for (int i = 1; i < traces.length; i++) {
+                if (traces[i][step * 2] != traces[0][step * 2] || traces[i][step * 2 + 1] != traces[0][step * 2 + 1]) {
+                    differ++;
+                    if (firstDiffer < 0) { firstDiffer = step; }
+                    break;
+                }
+            }
+        }
+        System.out.printf("Compared %d steps seen at %s Hz, %d differ%s%n", compared, Arrays.toString(rates), differ,
+                firstDiffer < 0 ? "" : " starting at step " + firstDiffer);
+    }
+
+    /*
+    Input: Void
+    Output: Void
+    Purpose: Buttons held down for each step, drawn from a seeded random so every run gets the same buttons on
+    the same step however many frames it takes to get there. Mostly walks right, now and then turns around,
+    and holds and lets go of jump
+    */
+    private static class ScriptedControls implements RaumControls {
+        private final RandomXS128 random;
+        private final LevelSimulation simulation;
+        private long scriptedStep = 0;
+        private boolean right = true;
+        private boolean walking = true;
+        private boolean jumping = false;
+
+        ScriptedControls(long seed, LevelSimulation simulation) {
+            random = new RandomXS128(seed);
+            this.simulation = simulation;
+        }
+
+        /*
+        Input: Void
+        Output: Void
+        Purpose: Moves the script on to the step the level is running, the first time it asks in that step
+        */
+        private void catchUp() {
+            while (scriptedStep < simulation.getSteps()) {
+                scriptedStep++;
+                if (random.nextInt(right ? 240 : 60) == 0) { right = !right; }
+                if (random.nextInt(120) == 0) { walking = !walking; }
+                if (random.nextInt(jumping ? 20 : 40) == 0) { jumping = !jumping; }
+            }
+        }
+
+        @Override
+        public boolean isLeftPressed() {
+            catchUp();
+            return walking && !right;
+        }
+
+        @Override
+        public boolean isRightPressed() {
+            catchUp();
+            return walking && right;
+        }
+
+        @Override
+        public boolean isJumpPressed() {
+            catchUp();
+            return jumping;
+        }
+    }
+
+    /*
+    Input: Void
+    Output: Void
+    Purpose: Parses the command line options
+    */
+    private static class Settings {
+        int[] rates = {30, 60, 144};
+        float seconds = 120;
+        long seed = 1;
+
+        Settings(String[] arg) {
+            for (String option : arg) {
+                String[] pair = option.split("=", 2);
+                if (pair.length != 2) { throw new IllegalArgumentException("Expected name=value but got " + option); }
+                switch (pair[0]) {
+                    case "rates": {
+                        String[] values = pair[1].split(",");
+                        rates = new int[values.length];
+                        for (int i = 0; i < values.length; i++) { rates[i] = Integer.parseInt(values[i]); }
+                    }
+                    break;
+                    case "seconds": seconds = Float.parseFloat(pair[1]); break;
+                    case "seed": seed = Long.parseLong(pair[1]); break;
+                    default: throw new IllegalArgumentException("Unknown option " + pair[0]);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.packt.flappybee;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/*
+Input: Void
+Output: Void
+Purpose: A small neural network that decides when flappee flies up. It looks at how far flappee is from
+the middle of the next gap, how fast it is going, how far away the next flower is and how high it is. The
+weights are found by the trainer and saved to a file the game loads for its autopilot
+*/
+public class BeeController {
+
+    private static final int MAGIC = 0x42454543;    //BEEC
+    private static final int VERSION = 1;
+
+    /*
+    Network size, every hidden neuron has a bias, a weight per input and a weight to the output, the
+    output bias comes first
+     */
+    static final int INPUTS = 4;
+    static final int HIDDEN = 8;
+    private static final int WEIGHTS_PER_HIDDEN = INPUTS + 2;
+    public static final int WEIGHT_COUNT = 1 + HIDDEN * WEIGHTS_PER_HIDDEN;
+
+    private final float[] weights;
+
+    /*
+    Input: Weights, WEIGHT_COUNT of them
+    Output: Void
+    Purpose: Creates a controller with a copy of the weights
+    */
+    public BeeController(float[] weights) {
+        if (weights.length != WEIGHT_COUNT) { throw new IllegalArgumentException("Expected " + WEIGHT_COUNT + " weights but got " + weights.length); }
+        this.weights = weights.clone();
+    }
+
+    /*
+    Input: Flappee's y and speed, x distance to the next flower and the middle of its gap
+    Output: Boolean
+    Purpose: Tells us if flappee should fly up this step
+    */
+    boolean shouldFly(float y, float ySpeed, float flowerDistance, float gapCenter) {
+        return decide(weights, 0, y, ySpeed, flowerDistance, gapCenter);
+    }
+
+    /*
+    Input: Weights of many controllers in one array, where this controller's weights start, what the
+    controller looks at
+    Output: Boolean
+    Purpose: Runs the network, the trainer calls this straight on its weight array so no controller objects
+    are needed for a whole population. The hidden neurons use x / (1 + |x|) which is shaped like tanh but
+    much cheaper
+    */
+    static boolean decide(float[] weights, int offset, float y, float ySpeed, float flowerDistance, float gapCenter) {
+        float input0 = (y - gapCenter) / GameScreen.WORLD_HEIGHT;
+        float input1 = ySpeed / Flappee.FLY_ACCELERATION;
+        float input2 = flowerDistance / GameScreen.WORLD_WIDTH;
+        float input3 = y / GameScreen.WORLD_HEIGHT - 0.5f;
+
+        int w = offset;
+        float output = weights[w++];
+        for (int hidden = 0; hidden < HIDDEN; hidden++) {
+            float sum = weights[w] + weights[w + 1] * input0 + weights[w + 2] * input1
+                    + weights[w + 3] * input2 + weights[w + 4] * input3;
+            output += weights[w + 5] * sum / (1 + Math.abs(sum));
+            w += WEIGHTS_PER_HIDDEN;
+        }
+        return output > 0;
+    }
+
+    /*
+    Input: Stream
+    Output: Void
+    Purpose: Writes the weights out, the stream is not closed
+    */
+    public void write(OutputStream stream) throws IOException {
+        DataOutputStream out = new DataOutputStream(stream);
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        out.writeByte(INPUTS);
+        out.writeByte(HIDDEN);
+        for (float weight : weights) { out.writeFloat(weight); }
+        out.flush();
+    }
+
+    /*
+    Input: Stream
+    Output: Controller
+    Purpose: Reads a controller written by write, the stream is not closed
+    */
+    public static BeeController read(InputStream stream) throws IOException {
+        DataInputStream in = new DataInputStream(stream);
+        if (in.readInt() != MAGIC) { throw new IOException("Not a bee controller"); }
+        int version = in.readUnsignedByte();
+        if (version != VERSION) { throw new IOException("Unsupported bee controller version " + version); }
+        if (in.readUnsignedByte() != INPUTS || in.readUnsignedByte() != HIDDEN) { throw new IOException("Bee controller has a different network size"); }
+        float[] weights = new float[WEIGHT_COUNT];
+        for (int i = 0; i < WEIGHT_COUNT; i++) { weights[i] = in.readFloat(); }
+        return new BeeController(weights);
+    }
+}
@@ -0,0 +1,265 @@
+package com.packt.flappybee;
+
+import com.badlogic.gdx.math.MathUtils;
+
+/*
+Input: Void
+Output: Void
+Purpose: Plays flappy bee for a whole population of bees at once with no window. Every bee flies through
+the same flowers so the flowers are moved once per step and only the bees are stepped one by one. The state
+of each bee is kept in plain arrays indexed by bee and the controller weights in one array, so stepping a
+slice of bees touches nothing but those arrays and different slices can be stepped on different threads.
+The steps follow GameScreen.step exactly so a controller trained here flies the same in the game
+*/
+public class BeeSwarm {
+
+    /*
+    Where flappee flies and where it starts, the same as in the game
+     */
+    private static final float BEE_X = GameScreen.WORLD_WIDTH / 4;
+    private static final float START_Y = GameScreen.WORLD_HEIGHT / 2;
+    private static final float RADIUS = Flappee.COLLISION_RADIUS;
+
+    /*
+    Flower shape, the circles sit on top of the stems in the middle of the stem
+     */
+    private static final float STEM_WIDTH = Flower.COLLISION_RECTANGLE_WIDTH;
+    private static final float STEM_HEIGHT = Flower.COLLISION_RECTANGLE_HEIGHT;
+    private static final float GAP = Flower.DISTANCE_BETWEEN_FLOOR_AND_CEILING;
+    private static final float HEAD_RADIUS = Flower.COLLISION_CIRCLE_RADIUS;
+
+    /*
+    Bees, one entry per bee
+     */
+    private final int size;
+    private final float[] y;
+    private final float[] ySpeed;
+    private final boolean[] alive;
+    private final float[] fitness;    //Steps survived
+    private final int[] score;        //Flowers passed
+    private final float[] weights;    //BeeController.WEIGHT_COUNT weights per bee
+
+    /*
+    Flowers on the screen, a ring in the order they spawned, x is the left edge of the stem and floorY the
+    bottom of the floor stem
+     */
+    private final float[] flowerX = new float[GameScreen.MAX_FLOWERS];
+    private final float[] flowerFloorY = new float[GameScreen.MAX_FLOWERS];
+    private final boolean[] flowerClaimed = new boolean[GameScreen.MAX_FLOWERS];
+    private int firstFlower = 0;
+    private int flowerCount = 0;
+    private final FlowerCourse course = new FlowerCourse(0);
+    private int nextFlower = 0;    //Flower of the course that spawns next
+
+    /*
+    What every bee sees at the start of the step and the flowers that overlap the bees in x after it, they
+    are the same for every bee since all bees have the same x
+     */
+    private float nextFlowerDistance;
+    private float nextGapCenter;
+    private int touchingFirst;
+    private int touchingCount;
+
+    private int steps = 0;
+    private int flowersPassed = 0;
+
+    /*
+    Input: Number of bees
+    Output: Void
+    Purpose: Creates the arrays for the population, the weights start at 0 and are filled in by the trainer
+    */
+    public BeeSwarm(int size) {
+        this.size = size;
+        y = new float[size];
+        ySpeed = new float[size];
+        alive = new boolean[size];
+        fitness = new float[size];
+        score = new int[size];
+        weights = new float[size * BeeController.WEIGHT_COUNT];
+    }
+
+    /*
+    Input: Seed of the flower course
+    Output: Void
+    Purpose: Puts every bee back at the start and clears the flowers, the same seed always gives the same
+    flowers as the game gets with that seed
+    */
+    public void reset(long courseSeed) {
+        course.reset(courseSeed);
+        nextFlower = 0;
+        firstFlower = 0;
+        flowerCount = 0;
+        steps = 0;
+        flowersPassed = 0;
+        for (int bee = 0; bee < size; bee++) {
+            y[bee] = START_Y;
+            ySpeed[bee] = 0;
+            alive[bee] = true;
+            fitness[bee] = 0;
+            score[bee] = 0;
+        }
+    }
+
+    /*
+    Input: Void
+    Output: Void
+    Purpose: First half of a step, run once before the bees are stepped. Looks at the next flower for the
+    controllers, then spawns, removes and moves the flowers like GameScreen.step and finds the flowers the
+    bees could be touching
+    */
+    public void advanceFlowers() {
+        steps++;
+        findNextFlower();
+
+        //Creation and destruction of new flowers
+        if (flowerCount == 0 || flowerX[flower(flowerCount - 1)] < GameScreen.WORLD_WIDTH - course.getSpacing(nextFlower - 1)) {
+            int added = flower(flowerCount++);
+            flowerX[added] = GameScreen.WORLD_WIDTH + STEM_WIDTH;
+            flowerFloorY[added] = course.getFloorY(nextFlower++);
+            flowerClaimed[added] = false;
+        }
+        if (flowerX[firstFlower] < -STEM_WIDTH) {
+            firstFlower = flower(1);
+            flowerCount--;
+        }
+
+        //Moves the flowers and claims the first one once the bees are past it
+        for (int i = 0; i < flowerCount; i++) { flowerX[flower(i)] -= Flower.MAX_SPEED_PER_SECOND * GameScreen.STEP; }
+        if (flowerX[firstFlower] < BEE_X && !flowerClaimed[firstFlower]) {
+            flowerClaimed[firstFlower] = true;
+            flowersPassed++;
+        }
+
+        //Broad phase, the same flowers are near every bee
+        touchingFirst = 0;
+        touchingCount = 0;
+        for (int i = 0; i < flowerCount; i++) {
+            float x = flowerX[flower(i)];
+            if (x + STEM_WIDTH / 2 + HEAD_RADIUS < BEE_X - RADIUS) { touchingFirst = i + 1; continue; }
+            if (x + STEM_WIDTH / 2 - HEAD_RADIUS > BEE_X + RADIUS) { break; }
+            touchingCount++;
+        }
+    }
+
+    /*
+    Input: Void
+    Output: Void
+    Purpose: Finds the first flower that is not fully behind the bees, with no flower ahead the bees are
+    told there is one far away at the middle of the screen
+    */
+    private void findNextFlower() {
+        nextFlowerDistance = GameScreen.WORLD_WIDTH;
+        nextGapCenter = GameScreen.WORLD_HEIGHT / 2;
+        for (int i = 0; i < flowerCount; i++) {
+            int index = flower(i);
+            if (flowerX[index] + STEM_WIDTH / 2 + HEAD_RADIUS >= BEE_X - RADIUS) {
+                nextFlowerDistance = flowerX[index] - BEE_X;
+                nextGapCenter = flowerFloorY[index] + STEM_HEIGHT + GAP / 2;
+                return;
+            }
+        }
+    }
+
+    /*
+    Input: First bee and one past the last bee of the slice
+    Output: Number of bees in the slice still alive
+    Purpose: Second half of a step, asks each living bee's controller if it flies, moves it like Flappee and
+    kills it if it hits a flower. Only writes the entries of the slice so slices can run at the same time
+    */
+    public int stepBees(int from, int to) {
+        int living = 0;
+        float delta = GameScreen.STEP;
+        for (int bee = from; bee < to; bee++) {
+            if (!alive[bee]) { continue; }
+            float beeY = y[bee];
+            float speed = ySpeed[bee];
+            boolean fly = BeeController.decide(weights, bee * BeeController.WEIGHT_COUNT, beeY, speed,
+                    nextFlowerDistance, nextGapCenter);
+
+            //Flappee.update, then Flappee.flyUp, then kept inside the world
+            speed -= Flappee.DIVE_ACCELERATION * delta;
+            beeY += speed * delta;
+            if (fly) {
+                speed = Flappee.FLY_ACCELERATION;
+                beeY += speed * delta;
+            }
+            beeY = MathUtils.clamp(beeY, RADIUS, GameScreen.WORLD_HEIGHT - RADIUS);
+            y[bee] = beeY;
+            ySpeed[bee] = speed;
+
+            if (isTouchingFlower(beeY)) {
+                alive[bee] = false;
+                continue;
+            }
+            fitness[bee] = steps;
+            score[bee] = flowersPassed;
+            living++;
+        }
+        return living;
+    }
+
+    /*
+    Input: Y of a bee
+    Output: Boolean
+    Purpose: Narrow phase against the flowers found in advanceFlowers, the same tests as
+    Flower.isFlappeeColliding
+    */
+    private boolean isTouchingFlower(float beeY) {
+        for (int i = touchingFirst; i < touchingFirst + touchingCount; i++) {
+            int index = flower(i);
+            float stemX = flowerX[index];
+            float floorTop = flowerFloorY[index] + STEM_HEIGHT;
+            float ceilingBottom = floorTop + GAP;
+            float headX = stemX + STEM_WIDTH / 2;
+            if (circlesOverlap(headX, floorTop, beeY) || circlesOverlap(headX, ceilingBottom, beeY)) { return true; }
+            if (stemOverlaps(stemX, floorTop - STEM_HEIGHT, beeY) || stemOverlaps(stemX, ceilingBottom, beeY)) { return true; }
+        }
+        return false;
+    }
+
+    /*
+    Input: Centre of a flower head, y of a bee
+    Output: Boolean
+    Purpose: Same as Intersector.overlaps of two circles
+    */
+    private static boolean circlesOverlap(float headX, float headY, float beeY) {
+        float dx = headX - BEE_X;
+        float dy = headY - beeY;
+        float radii = HEAD_RADIUS + RADIUS;
+        return dx * dx + dy * dy < radii * radii;
+    }
+
+    /*
+    Input: Bottom left corner of a stem, y of a bee
+    Output: Boolean
+    Purpose: Same as Intersector.overlaps of a circle and a rectangle
+    */
+    private static boolean stemOverlaps(float stemX, float stemY, float beeY) {
+        float dx = MathUtils.clamp(BEE_X, stemX, stemX + STEM_WIDTH) - BEE_X;
+        float dy = MathUtils.clamp(beeY, stemY, stemY + STEM_HEIGHT) - beeY;
+        return dx * dx + dy * dy < RADIUS * RADIUS;
+    }
+
+    /*
+    Input: Position in the flower queue
+    Output: Index in the flower arrays
+    Purpose: Wraps around the ring
+    */
+    private int flower(int position) { return (firstFlower + position) % flowerX.length; }
+
+    /*
+    Getters
+     */
+    public int getSize() { return size; }
+    public int getSteps() { return steps; }
+    public boolean isAlive(int bee) { return alive[bee]; }
+    public float getFitness(int bee) { return fitness[bee]; }
+    public int getScore(int bee) { return score[bee]; }
+
+    /*
+    Input: Void
+    Output: Weights of every bee, bee i starts at i * BeeController.WEIGHT_COUNT
+    Purpose: Lets the trainer read and change the controllers in place between generations
+    */
+    public float[] getWeights() { return weights; }
+}
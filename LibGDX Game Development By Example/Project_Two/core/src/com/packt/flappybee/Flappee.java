@@ -4,7 +4,6 @@ import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.Animation;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
-import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
 import com.badlogic.gdx.math.Circle;
 
 class Flappee {
@@ -12,18 +11,20 @@ class Flappee {
     private final Circle collisionCircle;
 
     //Sets radius, and initial position
-    private static final float COLLISION_RADIUS = 24f;
+    static final float COLLISION_RADIUS = 24f;
     private static final int TILE_WIDTH = 48;
     private static final int TILE_HEIGHT = 48;
     private float x = 0;
     private float y = 0;
 
     /*
-    Movement
+    Movement, speeds are per second and the dive is per second squared. These match the old per frame
+    values of 5 and 0.3 at 60 frames a second
      */
-    private static final float FLY_ACCELERATION = 5f;
-    private static final float DIVE_ACCELERATION = 0.30f;
+    static final float FLY_ACCELERATION = 5f * 60f;
+    static final float DIVE_ACCELERATION = 0.30f * 60f * 60f;
     private float ySpeed = 0;
+    private float previousY = 0;    //Y before the last step, used to draw between steps
 
     private static final float FRAME_DURATION = 0.25f;
     private float animationTime = 0;
@@ -50,6 +51,13 @@ class Flappee {
     */
     float getY(){ return y; }
 
+    /*
+    Input: Void
+    Output: Returns ySpeed
+    Purpose: Gives how fast flappee is going up, it is negative when falling
+    */
+    float getYSpeed(){ return ySpeed; }
+
     /*
     Input: Void
     Output: Returns X
@@ -86,24 +94,35 @@ class Flappee {
     }
 
     /*
-    Input: Void
+    Input: Position
     Output: Void
-    Purpose: updates the
+    Purpose: Moves flappee without drawing it part way from where it was, used when it is placed at the start
+    */
+    void teleport(float x, float y){
+        setPosition(x, y);
+        previousY = y;
+    }
+
+    /*
+    Input: Delta, length of the step in seconds
+    Output: Void
+    Purpose: Pulls flappee down for one step
     */
     void update(float delta){
+        previousY = y;
         animationTime += delta;
-        ySpeed -= DIVE_ACCELERATION;
-        setPosition(x, y + ySpeed);
+        ySpeed -= DIVE_ACCELERATION * delta;
+        setPosition(x, y + ySpeed * delta);
     }
 
     /*
-    Input: Void
+    Input: Delta, length of the step in seconds
     Output: Void
-    Purpose: updates the
+    Purpose: Sends flappee up
     */
-    void flyUp(){
+    void flyUp(float delta){
         ySpeed = FLY_ACCELERATION;
-        setPosition(x, y + ySpeed);
+        setPosition(x, y + ySpeed * delta);
     }
 
     /*
@@ -119,19 +138,20 @@ class Flappee {
     /*
     Input: SpriteBatch
     Output: Void
-    Purpose: Draws textures
+    Purpose: Draws textures, alpha is how far between the last step and the next one this frame is
     */
-    void draw(SpriteBatch batch){
+    void draw(SpriteBatch batch, float alpha){
         TextureRegion flappeeTexture = (TextureRegion) animation.getKeyFrame(animationTime);
-        batch.draw(flappeeTexture, collisionCircle.x-COLLISION_RADIUS, collisionCircle.y-COLLISION_RADIUS);
+        float drawY = previousY + (y - previousY) * alpha;
+        batch.draw(flappeeTexture, x - COLLISION_RADIUS, drawY - COLLISION_RADIUS);
     }
 
     /*
-    Input: Shaperenderd
+    Input: DebugOverlay
     Output: Void
-    Purpose: Draws the circle on the screen using render
+    Purpose: Adds the circle to the wire frame overlay
     */
-    void drawDebug(ShapeRenderer shapeRenderer) {
-        shapeRenderer.circle(collisionCircle.x, collisionCircle.y, collisionCircle.radius);
+    void drawDebug(DebugOverlay debugOverlay) {
+        debugOverlay.circle(collisionCircle.x, collisionCircle.y, collisionCircle.radius);
     }
 }
\ No newline at end of file
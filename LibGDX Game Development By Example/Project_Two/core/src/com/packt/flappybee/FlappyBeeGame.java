@@ -11,15 +11,22 @@ package com.packt.flappybee;
 
 import com.badlogic.gdx.Game;
 import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
 
 public class FlappyBeeGame extends Game {
 
+	//The packed texture that every screen draws from
+	static final String ATLAS = "flappy_bee_assets.atlas";
+
 	private final AssetManager assetManager = new AssetManager();
 
 	AssetManager getAssetManager() { return assetManager; }
 
 	@Override
 	public void create () {
+		//The start screen draws from the atlas so it is loaded before the screen is shown
+		assetManager.load(ATLAS, TextureAtlas.class);
+		assetManager.finishLoadingAsset(ATLAS);
 		//Calls game screen
 		setScreen(new StartScreen(this));
 	}
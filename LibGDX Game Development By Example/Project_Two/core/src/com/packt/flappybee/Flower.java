@@ -3,22 +3,21 @@ package com.packt.flappybee;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
-import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
 import com.badlogic.gdx.math.Circle;
 import com.badlogic.gdx.math.Intersector;
-import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Pool;
 
-class Flower{
+class Flower implements Pool.Poolable {
 
     /*
     Dimensions
      */
-    private static final float DISTANCE_BETWEEN_FLOOR_AND_CEILING = 225F;
-    private static final float COLLISION_RECTANGLE_WIDTH = 13f;
-    private static final float COLLISION_RECTANGLE_HEIGHT = 447f;
-    private static final float HEIGHT_OFFSET = -400f;
-    private static final float COLLISION_CIRCLE_RADIUS = 33f;
+    static final float DISTANCE_BETWEEN_FLOOR_AND_CEILING = 225F;
+    static final float COLLISION_RECTANGLE_WIDTH = 13f;
+    static final float COLLISION_RECTANGLE_HEIGHT = 447f;
+    static final float HEIGHT_OFFSET = -400f;
+    static final float COLLISION_CIRCLE_RADIUS = 33f;
 
     /*
     Objects
@@ -28,13 +27,14 @@ class Flower{
     private final Circle ceilingCollisionCircle;
     private final Rectangle ceilingCollisionRectangle;
 
-    //Position
+    //Position, and the x before the last step used to draw between steps
     private float x = 0;
+    private float previousX = 0;
 
     /*
     Movment
      */
-    private static final float MAX_SPEED_PER_SECOND = 100f;
+    static final float MAX_SPEED_PER_SECOND = 100f;
 
     /*
     Flags
@@ -50,18 +50,39 @@ class Flower{
     /*
     Input: Delta
     Output: Void
-    Purpose: Flower constructor, creates the rectangle and circle on top, and places it at -400 to 0 y
+    Purpose: Flower constructor, creates the rectangle and circle on top. Flowers are made by the pool in
+    GameScreen and reused after they pass the screen, their height comes from the course when they spawn
     */
     Flower(TextureRegion floorTexture, TextureRegion ceilingTexture){
         this.ceilingTexture = ceilingTexture;
         this.floorTexture = floorTexture;
 
-        float y = MathUtils.random(HEIGHT_OFFSET);
-        this.floorCollisionRectangle = new Rectangle(x, y,COLLISION_RECTANGLE_WIDTH, COLLISION_RECTANGLE_HEIGHT);
-        this.floorCollisionCircle = new Circle((x + COLLISION_RECTANGLE_WIDTH)/2, y + COLLISION_RECTANGLE_HEIGHT ,COLLISION_CIRCLE_RADIUS);
+        this.floorCollisionRectangle = new Rectangle(x, 0, COLLISION_RECTANGLE_WIDTH, COLLISION_RECTANGLE_HEIGHT);
+        this.floorCollisionCircle = new Circle((x + COLLISION_RECTANGLE_WIDTH)/2, 0, COLLISION_CIRCLE_RADIUS);
 
-        this.ceilingCollisionRectangle = new Rectangle(x, y + COLLISION_RECTANGLE_HEIGHT + DISTANCE_BETWEEN_FLOOR_AND_CEILING,COLLISION_RECTANGLE_WIDTH, COLLISION_RECTANGLE_HEIGHT);
-        this.ceilingCollisionCircle = new Circle((x + COLLISION_RECTANGLE_WIDTH)/2, y + COLLISION_RECTANGLE_HEIGHT + DISTANCE_BETWEEN_FLOOR_AND_CEILING,COLLISION_CIRCLE_RADIUS);
+        this.ceilingCollisionRectangle = new Rectangle(x, 0, COLLISION_RECTANGLE_WIDTH, COLLISION_RECTANGLE_HEIGHT);
+        this.ceilingCollisionCircle = new Circle((x + COLLISION_RECTANGLE_WIDTH)/2, 0, COLLISION_CIRCLE_RADIUS);
+    }
+
+    /*
+    Input: Void
+    Output: Void
+    Purpose: Gets the flower ready to be spawned again when it goes back to the pool, lets its point be
+    claimed again
+    */
+    @Override
+    public void reset() { pointClaimed = false; }
+
+    /*
+    Input: Y of the bottom of the floor stem, from the course
+    Output: Void
+    Purpose: Places the floor and the ceiling the gap above it
+    */
+    void setFloorY(float y) {
+        floorCollisionRectangle.setY(y);
+        floorCollisionCircle.setY(y + COLLISION_RECTANGLE_HEIGHT);
+        ceilingCollisionRectangle.setY(y + COLLISION_RECTANGLE_HEIGHT + DISTANCE_BETWEEN_FLOOR_AND_CEILING);
+        ceilingCollisionCircle.setY(y + COLLISION_RECTANGLE_HEIGHT + DISTANCE_BETWEEN_FLOOR_AND_CEILING);
     }
 
     /*
@@ -78,6 +99,21 @@ class Flower{
     */
     float getWidth(){ return COLLISION_RECTANGLE_WIDTH;}
 
+    /*
+    Input: Void
+    Output: Y in the middle of the gap
+    Purpose: Gives the height flappee has to be at to pass through the flower
+    */
+    float getGapCenter(){ return floorCollisionRectangle.y + COLLISION_RECTANGLE_HEIGHT + DISTANCE_BETWEEN_FLOOR_AND_CEILING/2; }
+
+    /*
+    Input: Void
+    Output: Left and right edge of the flower
+    Purpose: Gives the x range covered by any of the collision shapes, the circles are wider than the stems
+    */
+    float getMinX(){ return x + COLLISION_RECTANGLE_WIDTH/2 - COLLISION_CIRCLE_RADIUS; }
+    float getMaxX(){ return x + COLLISION_RECTANGLE_WIDTH/2 + COLLISION_CIRCLE_RADIUS; }
+
     /*
     Input: Void
     Output: Returns X
@@ -89,6 +125,16 @@ class Flower{
         updateCollisionRectangle();
     }
 
+    /*
+    Input: X
+    Output: Void
+    Purpose: Places the flower without drawing it part way from where it was, used when it spawns
+    */
+    void teleport(float x){
+        setPosition(x);
+        previousX = x;
+    }
+
     /*
     Input: Void
     Output: Void
@@ -112,8 +158,11 @@ class Flower{
     /*
     Input: Flapee circle
     Output: Returs flag that tells us if we intercepts between any of the flower parts and flappe
-    Purpose: Checks if flappe hits any of the flower parts
+    Purpose: Checks if flappe hits any of the flower parts, this is the narrow phase and makes
+    NARROW_PHASE_TESTS overlap tests
     */
+    static final int NARROW_PHASE_TESTS = 4;
+
     boolean isFlappeeColliding(Flappee flapee) {
         Circle flappeeCollisionCircle = flapee.getCollisionCircle();
         return Intersector.overlaps(flappeeCollisionCircle, floorCollisionCircle) ||
@@ -127,7 +176,10 @@ class Flower{
     Output: Void
     Purpose: Calculates the new position of the flower
     */
-    void update(float delta){ setPosition(x-(MAX_SPEED_PER_SECOND * delta)); }
+    void update(float delta){
+        previousX = x;
+        setPosition(x-(MAX_SPEED_PER_SECOND * delta));
+    }
 
     /*
     Input: Void
@@ -146,44 +198,46 @@ class Flower{
     /*
     Input: SpriteBatch
     Output: Void
-    Purpose: Central drawing function
+    Purpose: Central drawing function, alpha is how far between the last step and the next one this frame is
     */
-    void draw(SpriteBatch batch){
-        drawFloor(batch);
-        drawCeiling(batch);
+    void draw(SpriteBatch batch, float alpha){
+        //How far back from the current position the flower is drawn
+        float offsetX = (previousX - x) * (1 - alpha);
+        drawFloor(batch, offsetX);
+        drawCeiling(batch, offsetX);
     }
 
     /*
-    Input: SpriteBatch
+    Input: SpriteBatch, Offset from the current x
     Output: Void
     Purpose: Draws the top textures
     */
-    private void drawFloor(SpriteBatch batch){
-        float textureX = floorCollisionCircle.x - (float) floorTexture.getRegionWidth()/2;
+    private void drawFloor(SpriteBatch batch, float offsetX){
+        float textureX = floorCollisionCircle.x + offsetX - (float) floorTexture.getRegionWidth()/2;
         float textureY = floorCollisionRectangle.getY() - COLLISION_CIRCLE_RADIUS;
         batch.draw(floorTexture, textureX, textureY);
     }
 
     /*
-    Input: SpriteBatch
+    Input: SpriteBatch, Offset from the current x
     Output: Void
     Purpose: Draws the floor textures
     */
-    private void drawCeiling(SpriteBatch batch){
-        float textureX = ceilingCollisionCircle.x - (float) ceilingTexture.getRegionWidth()/2;
+    private void drawCeiling(SpriteBatch batch, float offsetX){
+        float textureX = ceilingCollisionCircle.x + offsetX - (float) ceilingTexture.getRegionWidth()/2;
         float textureY = ceilingCollisionRectangle.getY() - COLLISION_CIRCLE_RADIUS;
         batch.draw(ceilingTexture, textureX, textureY);
     }
 
     /*
-    Input: ShapeRenderer
+    Input: DebugOverlay
     Output: Void
-    Purpose: Draws the wire frame
+    Purpose: Adds the wire frame to the overlay
     */
-    void drawDebug(ShapeRenderer shapeRenderer) {
-        shapeRenderer.circle(floorCollisionCircle.x, floorCollisionCircle.y, floorCollisionCircle.radius);
-        shapeRenderer.rect(floorCollisionRectangle.x, floorCollisionRectangle.y, floorCollisionRectangle.width, floorCollisionRectangle.height);
-        shapeRenderer.circle(ceilingCollisionCircle.x, ceilingCollisionCircle.y, ceilingCollisionCircle.radius);
-        shapeRenderer.rect(ceilingCollisionRectangle.x, ceilingCollisionRectangle.y, ceilingCollisionRectangle.width, ceilingCollisionRectangle.height);
+    void drawDebug(DebugOverlay debugOverlay) {
+        debugOverlay.circle(floorCollisionCircle.x, floorCollisionCircle.y, floorCollisionCircle.radius);
+        debugOverlay.rect(floorCollisionRectangle.x, floorCollisionRectangle.y, floorCollisionRectangle.width, floorCollisionRectangle.height);
+        debugOverlay.circle(ceilingCollisionCircle.x, ceilingCollisionCircle.y, ceilingCollisionCircle.radius);
+        debugOverlay.rect(ceilingCollisionRectangle.x, ceilingCollisionRectangle.y, ceilingCollisionRectangle.width, ceilingCollisionRectangle.height);
     }
 }
\ No newline at end of file
@@ -0,0 +1,87 @@
+package com.packt.flappybee;
+
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.utils.FloatArray;
+
+/*
+Input: Void
+Output: Void
+Purpose: The heights and spacing of every flower of a run, made from a seed so the same seed always gives
+the same flowers. Flowers are made in blocks the first time one past the end is asked for and kept in one
+float buffer, two floats per flower, so spawning a flower is just reading two floats
+*/
+class FlowerCourse {
+
+    private static final int BLOCK = 64;    //Flowers made every time the course runs out
+
+    /*
+    Extra space between flowers on top of GAP_BETWEEN_FLOWERS, flowers are never closer than that
+     */
+    static final float EXTRA_SPACING = 40f;
+
+    private final RandomXS128 random = new RandomXS128();
+    private final FloatArray flowers = new FloatArray(2 * BLOCK);    //Floor y, spacing to the next flower
+    private long seed;
+
+    /*
+    Input: Seed
+    Output: Void
+    Purpose: Creates the course for the seed
+    */
+    FlowerCourse(long seed) { reset(seed); }
+
+    /*
+    Input: Seed
+    Output: Void
+    Purpose: Throws the made flowers away and starts the course of a new seed
+    */
+    void reset(long seed) {
+        this.seed = seed;
+        random.setSeed(seed);
+        flowers.clear();
+    }
+
+    /*
+    Input: Flower number, 0 is the first flower of the run
+    Output: Y of the bottom of the floor stem
+    Purpose: Between HEIGHT_OFFSET and 0 like the flowers always were, the ceiling is
+    DISTANCE_BETWEEN_FLOOR_AND_CEILING above the floor
+    */
+    float getFloorY(int flower) {
+        extendTo(flower);
+        return flowers.items[2 * flower];
+    }
+
+    /*
+    Input: Flower number
+    Output: Distance the flower has moved before the one after it spawns
+    Purpose: At least GAP_BETWEEN_FLOWERS and at most EXTRA_SPACING more
+    */
+    float getSpacing(int flower) {
+        extendTo(flower);
+        return flowers.items[2 * flower + 1];
+    }
+
+    /*
+    Input: Void
+    Output: Seed
+    Purpose: Lets a run be played again or shared
+    */
+    long getSeed() { return seed; }
+
+    /*
+    Input: Flower number
+    Output: Void
+    Purpose: Makes blocks of flowers until the flower exists, always in order so the flowers only depend on
+    the seed and never on how far ahead they were asked for
+    */
+    private void extendTo(int flower) {
+        while (flowers.size <= 2 * flower) {
+            flowers.ensureCapacity(2 * BLOCK);
+            for (int i = 0; i < BLOCK; i++) {
+                flowers.add(random.nextFloat() * Flower.HEIGHT_OFFSET);
+                flowers.add(GameScreen.GAP_BETWEEN_FLOWERS + random.nextFloat() * EXTRA_SPACING);
+            }
+        }
+    }
+}
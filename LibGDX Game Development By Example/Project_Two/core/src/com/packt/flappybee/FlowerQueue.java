@@ -0,0 +1,83 @@
+package com.packt.flappybee;
+
+/*
+Input: Void
+Output: Void
+Purpose: Holds the flowers on screen in the order they were spawned in a fixed size ring. New flowers go
+on the end and passed flowers come off the front, both without shifting the rest or creating anything
+*/
+class FlowerQueue {
+
+    private final Flower[] flowers;
+    private int first = 0;
+    private int size = 0;
+
+    /*
+    Input: Most flowers that can be on screen at once
+    Output: Void
+    Purpose: Creates an empty queue
+    */
+    FlowerQueue(int capacity) { flowers = new Flower[capacity]; }
+
+    /*
+    Input: Void
+    Output: Number of flowers
+    Purpose: Gives how many flowers are in the queue
+    */
+    int size() { return size; }
+
+    /*
+    Input: Index, 0 is the oldest flower
+    Output: Flower
+    Purpose: Gives the flower at that position in spawn order
+    */
+    Flower get(int index) { return flowers[slot(index)]; }
+
+    /*
+    Input: Void
+    Output: Flower
+    Purpose: Gives the oldest flower, the one furthest to the left
+    */
+    Flower first() { return flowers[first]; }
+
+    /*
+    Input: Void
+    Output: Flower
+    Purpose: Gives the newest flower, the one furthest to the right
+    */
+    Flower peek() { return flowers[slot(size - 1)]; }
+
+    /*
+    Input: Flower
+    Output: Void
+    Purpose: Adds a newly spawned flower at the end
+    */
+    void add(Flower flower) {
+        if (size == flowers.length) { throw new IllegalStateException("Flower queue is full"); }
+        flowers[slot(size)] = flower;
+        size++;
+    }
+
+    /*
+    Input: Void
+    Output: Flower that was removed
+    Purpose: Takes the oldest flower off the front
+    */
+    Flower removeFirst() {
+        Flower flower = flowers[first];
+        flowers[first] = null;
+        first = slot(1);
+        size--;
+        return flower;
+    }
+
+    /*
+    Input: Index in the queue
+    Output: Index in the array
+    Purpose: Wraps the queue around the array
+    */
+    private int slot(int index) {
+        int slot = first + index;
+        return slot >= flowers.length ? slot - flowers.length : slot;
+    }
+}
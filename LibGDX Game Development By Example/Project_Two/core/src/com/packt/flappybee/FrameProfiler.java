@@ -0,0 +1,241 @@
+package com.packt.flappybee;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.GlyphLayout;
+import com.badlogic.gdx.graphics.profiling.GLProfiler;
+import com.badlogic.gdx.utils.StringBuilder;
+
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+
+/*
+Input: Void
+Output: Void
+Purpose: Records how long each phase of every frame took along with the render calls, texture binds and
+garbage collections of the frame. Each metric is kept in a ring of the last few seconds of frames that is
+only written by the render thread, so nothing is locked or created while recording. The rings can be
+summed up as p50/p99/max and shown on screen or written to a file. Counting texture binds wraps every GL
+call in a check for errors, so they are only counted while the overlay is showing
+*/
+class FrameProfiler {
+
+    /*
+    Metrics, the first four are phase times in nanoseconds, the rest are counts
+     */
+    static final int UPDATE = 0;
+    static final int COLLISION = 1;
+    static final int DRAW = 2;
+    static final int DEBUG = 3;
+    private static final int PHASE_COUNT = 4;
+    static final int NARROW_PHASE_TESTS = 4;
+    private static final int RENDER_CALLS = 5;
+    private static final int TEXTURE_BINDS = 6;
+    private static final int GARBAGE_COLLECTIONS = 7;
+    private static final int METRIC_COUNT = 8;
+    private static final String[] METRIC_NAMES = {"update us", "collide us", "draw us", "debug us", "narrow tests",
+            "render calls", "tex binds", "gc"};
+
+    private static final int SUMMARY_INTERVAL = 60;    //Frames between refreshing the on screen summary
+    private static final long NOT_COUNTED = -1;        //Texture binds of a frame recorded with the GL profiler off
+
+    /*
+    Rings of samples, samples[metric][frame % capacity]. frames is only written by the render thread and is
+    volatile so a reader on another thread sees the samples written before it
+     */
+    private final int capacity;
+    private final long[][] samples;
+    private volatile long frames = 0;
+
+    /*
+    The frame being recorded
+     */
+    private final long[] phaseStart = new long[PHASE_COUNT];
+    private final long[] current = new long[METRIC_COUNT];
+
+    /*
+    Counts texture binds while it is on, and a weakly held object that is gone after every garbage collection
+     */
+    private final GLProfiler glProfiler;
+    private WeakReference<Object> gcSentinel = new WeakReference<>(new Object());
+
+    /*
+    Summary text reused for the overlay
+     */
+    private final long[] sorted;
+    private final StringBuilder summary = new StringBuilder(512);
+    private final GlyphLayout summaryLayout = new GlyphLayout();
+    private boolean overlayVisible = false;
+    private boolean summaryChanged = false;    //Summary has to be laid out again before it is drawn
+
+    /*
+    Input: Number of frames to keep
+    Output: Void
+    Purpose: Creates the rings, GL calls aren't counted until the overlay is shown
+    */
+    FrameProfiler(int capacity) {
+        this.capacity = capacity;
+        samples = new long[METRIC_COUNT][capacity];
+        sorted = new long[capacity];
+        glProfiler = new GLProfiler(Gdx.graphics);
+    }
+
+    /*
+    Input: Phase
+    Output: Void
+    Purpose: Starts timing a phase of this frame
+    */
+    void begin(int phase) { phaseStart[phase] = System.nanoTime(); }
+
+    /*
+    Input: Phase
+    Output: Void
+    Purpose: Stops timing a phase, a phase can be timed more than once a frame and the times are added up
+    */
+    void end(int phase) { current[phase] += System.nanoTime() - phaseStart[phase]; }
+
+    /*
+    Input: Counter, Amount
+    Output: Void
+    Purpose: Adds to one of the counters of this frame, like NARROW_PHASE_TESTS
+    */
+    void addCount(int counter, int amount) { current[counter] += amount; }
+
+    /*
+    Input: Render calls the batch made this frame
+    Output: Void
+    Purpose: Writes this frame into the rings and gets ready for the next one
+    */
+    void endFrame(int renderCalls) {
+        int slot = (int) (frames % capacity);
+        for (int metric = 0; metric < METRIC_COUNT; metric++) {
+            samples[metric][slot] = current[metric];
+            current[metric] = 0;
+        }
+        samples[RENDER_CALLS][slot] = renderCalls;
+        samples[GARBAGE_COLLECTIONS][slot] = checkForGarbageCollection();
+        if (glProfiler.isEnabled()) {
+            samples[TEXTURE_BINDS][slot] = glProfiler.getTextureBindings();
+            glProfiler.reset();
+        }
+        else { samples[TEXTURE_BINDS][slot] = NOT_COUNTED; }
+        frames++;
+
+        if (overlayVisible && frames % SUMMARY_INTERVAL == 0) { refreshOverlay(); }
+    }
+
+    /*
+    Input: Void
+    Output: 1 if a garbage collection happened since the last call, 0 if not
+    Purpose: The sentinel is only weakly held so it is cleared by the first collection after it was made
+    */
+    private int checkForGarbageCollection() {
+        if (gcSentinel.get() != null) { return 0; }
+        gcSentinel = new WeakReference<>(new Object());
+        return 1;
+    }
+
+    /*
+    Input: Void
+    Output: Void
+    Purpose: Shows or hides the on screen summary, and starts or stops counting texture binds with it
+    */
+    void toggleOverlay() {
+        overlayVisible = !overlayVisible;
+        if (overlayVisible) {
+            glProfiler.reset();
+            glProfiler.enable();
+            refreshOverlay();
+        }
+        else { glProfiler.disable(); }
+    }
+
+    /*
+    Input: Void
+    Output: Void
+    Purpose: Puts back the GL calls the profiler wrapped
+    */
+    void dispose() { glProfiler.disable(); }
+
+    /*
+    Input: Batch, Font, top left corner of the text
+    Output: Void
+    Purpose: Draws the last summary if the overlay is on, must be called between batch begin and end
+    */
+    void drawOverlay(Batch batch, BitmapFont font, float x, float y) {
+        if (!overlayVisible) { return; }
+        if (summaryChanged) {
+            summaryLayout.setText(font, summary);
+            summaryChanged = false;
+        }
+        font.draw(batch, summaryLayout, x, y);
+    }
+
+    /*
+    Input: File
+    Output: Void
+    Purpose: Writes the summary of the frames in the rings to the file
+    */
+    void dump(FileHandle file) {
+        summarize();
+        summaryChanged = true;
+        file.writeString(summary.toString(), false);
+        Gdx.app.log("Profiler", "Frame summary written to " + file.path());
+    }
+
+    /*
+    Input: Void
+    Output: Void
+    Purpose: Updates the summary, it is laid out with the overlay font on the next draw
+    */
+    private void refreshOverlay() {
+        summarize();
+        summaryChanged = true;
+    }
+
+    /*
+    Input: Void
+    Output: Void
+    Purpose: Fills the summary text with p50, p99 and max of every metric over the frames in the rings, the
+    garbage collections are a total since they are rare. Texture binds are only summed up over the frames they
+    were counted in, n/a if there were none
+    */
+    private void summarize() {
+        int count = (int) Math.min(frames, capacity);
+        summary.setLength(0);
+        summary.append("frames ").append(count).append('\n');
+        if (count == 0) { return; }
+        for (int metric = 0; metric < METRIC_COUNT; metric++) {
+            System.arraycopy(samples[metric], 0, sorted, 0, count);
+            Arrays.sort(sorted, 0, count);
+            boolean isTime = metric < PHASE_COUNT;
+            summary.append(METRIC_NAMES[metric]);
+            if (metric == GARBAGE_COLLECTIONS) {
+                long total = 0;
+                for (int i = 0; i < count; i++) { total += sorted[i]; }
+                summary.append(" total ").append(total).append('\n');
+                continue;
+            }
+            //Frames that weren't counted sort to the front
+            int first = 0;
+            while (first < count && sorted[first] == NOT_COUNTED) { first++; }
+            if (first == count) {
+                summary.append(" n/a\n");
+                continue;
+            }
+            int counted = count - first;
+            summary.append(" p50 ").append(scale(sorted[first + (counted - 1) / 2], isTime));
+            summary.append(" p99 ").append(scale(sorted[first + (counted - 1) * 99 / 100], isTime));
+            summary.append(" max ").append(scale(sorted[count - 1], isTime)).append('\n');
+        }
+    }
+
+    /*
+    Input: Sample, if it is a time
+    Output: Sample in microseconds for times and as is for counts
+    Purpose: Keeps the summary in whole numbers
+    */
+    private static long scale(long sample, boolean isTime) { return isTime ? sample / 1000 : sample; }
+}
@@ -4,33 +4,36 @@ import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Input;
 import com.badlogic.gdx.ScreenAdapter;
 import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.graphics.Camera;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.GL20;
 import com.badlogic.gdx.graphics.OrthographicCamera;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
-import com.badlogic.gdx.graphics.g2d.GlyphLayout;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.graphics.g2d.TextureAtlas;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
-import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
 import com.badlogic.gdx.math.MathUtils;
-import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Pool;
+import com.badlogic.gdx.utils.StreamUtils;
 import com.badlogic.gdx.utils.viewport.FitViewport;
 import com.badlogic.gdx.utils.viewport.Viewport;
 
+import java.io.IOException;
+import java.io.InputStream;
+
 class GameScreen extends ScreenAdapter {
 
     /*
     Dimensions -- Units the screen has
      */
-    private static final float WORLD_WIDTH = 480;
-    private static final float WORLD_HEIGHT = 640;
+    static final float WORLD_WIDTH = 480;
+    static final float WORLD_HEIGHT = 640;
 
     /*
     Image processing -- Objects that modify the view and textures
      */
-    private ShapeRenderer shapeRenderer; //Creates the wire frames
+    private final DebugOverlay debugOverlay = new DebugOverlay(); //Collects the wire frames, 1 turns it on
     private Viewport viewport;			 //The screen where we display things
     private Camera camera;				 //The camera viewing the viewport
     private SpriteBatch batch;			 //Batch that holds all of the textures
@@ -52,10 +55,21 @@ class GameScreen extends ScreenAdapter {
     private Flappee flappee;
 
     /*
-    Array of Flowers -- Array of flowers that act as our obstacles and the distance between each pair
+    Queue of Flowers -- Flowers that act as our obstacles in the order they spawned and the distance between
+    each pair. Flowers that pass the screen go back to the pool and are reused for the next spawn
+     */
+    static final float GAP_BETWEEN_FLOWERS = 200F;
+    static final int MAX_FLOWERS = (int) (WORLD_WIDTH / GAP_BETWEEN_FLOWERS) + 3;
+    private final FlowerQueue flowers = new FlowerQueue(MAX_FLOWERS);
+    private Pool<Flower> flowerPool;
+
+    /*
+    Course -- Heights and spacing of the flowers from a seed. A given seed plays the same course on every
+    restart, without one every restart gets a new course
      */
-    private Array<Flower> flowers = new Array<>();
-    private static final float GAP_BETWEEN_FLOWERS = 200F;
+    private final FlowerCourse course;
+    private final boolean fixedCourse;
+    private int nextFlower = 0;     //Flower of the course that spawns next
 
     /*
     User Info
@@ -63,21 +77,53 @@ class GameScreen extends ScreenAdapter {
     private int score = 0;
 
     /*
-    Bitmap and GlyphLayout
+    Bitmap and the score text
      */
     private BitmapFont bitmapFont;
-    private GlyphLayout glyphLayout;
+    private HudText scoreText;
+
+    /*
+    Fixed time step -- The game moves in steps of STEP seconds no matter the frame rate, the time left over
+    after the last step is used to draw everything part way to the next step
+     */
+    static final float STEP = 1 / 60f;
+    private static final float MAX_FRAME_TIME = 0.25f;  //Stops a long pause from running hundreds of steps
+    private float accumulator = 0;
+    private boolean flyRequested = false;               //Space was pressed and the next step should fly up
+
+    /*
+    Profiler -- Times every phase of the frame, 2 shows the summary on screen and 3 writes it to a file. Texture
+    binds are only counted while the summary is on screen
+     */
+    private static final String PROFILE_FILE = "frame_profile.txt";
+    private FrameProfiler profiler;
+    private BitmapFont profilerFont;
 
     /*
-    Flags
+    Autopilot -- 4 lets the controller written by the trainer fly flappee, it is loaded the first time
      */
-    private boolean debugMode = false;
+    private static final String CONTROLLER_FILE = "flappee_controller.bin";
+    private BeeController autopilot;
+    private boolean autopilotMode = false;
 
 
     FlappyBeeGame flappyBeeGame;
 
     GameScreen(FlappyBeeGame flappyBeeGame){
         this.flappyBeeGame = flappyBeeGame;
+        this.course = new FlowerCourse(MathUtils.random.nextLong());
+        this.fixedCourse = false;
+    }
+
+    /*
+    Input: Game, Seed of the course
+    Output: Void
+    Purpose: Plays the same flowers every time, for challenge seeds and benchmark runs
+    */
+    GameScreen(FlappyBeeGame flappyBeeGame, long courseSeed){
+        this.flappyBeeGame = flappyBeeGame;
+        this.course = new FlowerCourse(courseSeed);
+        this.fixedCourse = true;
     }
 
     /*
@@ -90,6 +136,18 @@ class GameScreen extends ScreenAdapter {
         viewport.update(width, height);
     }
 
+    /*
+    Input: Void
+    Output: Void
+    Purpose: Gets rid of the wire frame renderer if it was ever made, and the profiler and its font
+    */
+    @Override
+    public void dispose() {
+        debugOverlay.dispose();
+        if(profiler != null){ profiler.dispose(); }
+        if(profilerFont != null){ profilerFont.dispose(); }
+    }
+
     /*
     Input: Void
     Output: Void
@@ -100,16 +158,20 @@ class GameScreen extends ScreenAdapter {
 
 
         //Calls in the big texture pack
-        TextureAtlas textureAtlas = flappyBeeGame.getAssetManager().get("flappy_bee_assets.atlas");
+        TextureAtlas textureAtlas = flappyBeeGame.getAssetManager().get(FlappyBeeGame.ATLAS);
         //Connects the images, no need for image extensions anymore
         background = textureAtlas.findRegion("Space");
         bottomTower = textureAtlas.findRegion("T22");
         topTower = textureAtlas.findRegion("T11");
         flappedTexture = textureAtlas.findRegion("Skulls");
+        flowerPool = new Pool<Flower>(MAX_FLOWERS, MAX_FLOWERS) {
+            @Override
+            protected Flower newObject() { return new Flower(topTower, bottomTower); }
+        };
 
         //Flappee's initial position
         flappee = new Flappee(flappedTexture);
-        flappee.setPosition(WORLD_WIDTH/4, WORLD_HEIGHT/2);
+        flappee.teleport(WORLD_WIDTH/4, WORLD_HEIGHT/2);
 
         //Camera and View display
         camera = new OrthographicCamera();									//Sets a 2D view
@@ -117,16 +179,19 @@ class GameScreen extends ScreenAdapter {
         camera.update();													//Updates the camera
         viewport = new FitViewport(WORLD_WIDTH, WORLD_HEIGHT, camera);		//
 
-        //Sets up the wireframe render
-        shapeRenderer = new ShapeRenderer();
-
         //Sets up the texture with the images
         batch = new SpriteBatch();
 
         //BitmapFont and GlyphLayout
         bitmapFont = new BitmapFont();
         bitmapFont = flappyBeeGame.getAssetManager().get("font.fnt");
-        glyphLayout = new GlyphLayout();
+        scoreText = new HudText(bitmapFont, "");
+
+        Gdx.app.log("Course", "Seed " + course.getSeed());
+
+        //Keeps the last 10 seconds of frames at 60 fps
+        profiler = new FrameProfiler(600);
+        profilerFont = new BitmapFont();
 
     }
 
@@ -137,25 +202,48 @@ class GameScreen extends ScreenAdapter {
     */
     @Override
     public void render(float delta) {
-        //Wipes screen
+        setDebugMode();
+        setProfilerMode();
+        setAutopilotMode();
+        if(Gdx.input.isKeyJustPressed(Input.Keys.SPACE)) { flyRequested = true; }
+
+        //Runs as many steps as the frame time covers
+        accumulator += Math.min(delta, MAX_FRAME_TIME);
+        while (accumulator >= STEP) {
+            step(STEP);
+            accumulator -= STEP;
+        }
+
+        //Wipes screen and draws everything between the last two steps
+        profiler.begin(FrameProfiler.DRAW);
         clearScreen();
 
-        draw();
+        draw(accumulator / STEP);
+        profiler.end(FrameProfiler.DRAW);
+
+        //Wire frames, collected from everything and drawn in one go
+        profiler.begin(FrameProfiler.DEBUG);
+        if(debugOverlay.isEnabled()) {
+            debugOverlay.setColor(Color.BLACK);
+            flappee.drawDebug(debugOverlay);                                         //Adds flappee
+            for (int i = 0; i < flowers.size(); i++) {
+                flowers.get(i).drawDebug(debugOverlay);
+            }        //Adds flowers
+            debugOverlay.flush(camera.combined);
+        }
+        profiler.end(FrameProfiler.DEBUG);
 
-        setDebugMode();
+        profiler.endFrame(batch.totalRenderCalls);
+    }
 
-        //ShapeRender, drawing lines
-        if(debugMode) {
-            shapeRenderer.setColor(Color.BLACK);
-            shapeRenderer.setProjectionMatrix(camera.projection);                    //Screen set up
-            shapeRenderer.setTransformMatrix(camera.view);                            //Screen set up
-            shapeRenderer.begin(ShapeRenderer.ShapeType.Line);                        //Sets up to draw lines
-            flappee.drawDebug(shapeRenderer);                                        //Draws flappee
-            for (Flower flower : flowers) {
-                flower.drawDebug(shapeRenderer);
-            }        //Draws flowers
-            shapeRenderer.end();
-        }
+    /*
+    Input: Step length in seconds
+    Output: Void
+    Purpose: Moves the game forward by one fixed step, Flappee, the flowers, the score and collisions
+    */
+    void step(float delta) {
+        profiler.begin(FrameProfiler.UPDATE);
+        if(autopilotMode) { flyRequested = askAutopilot(); }
 
         //Creation and destruction of new flowers
         checkIfNewFlowerIsNeeded();
@@ -165,7 +253,12 @@ class GameScreen extends ScreenAdapter {
         updateFlappee(delta);
         updateFlowers(delta);
         updateScore();
-        if(checkForCollision()){ restart();}
+        profiler.end(FrameProfiler.UPDATE);
+
+        profiler.begin(FrameProfiler.COLLISION);
+        boolean collided = checkForCollision();
+        profiler.end(FrameProfiler.COLLISION);
+        if(collided){ restart();}
     }
 
     /*
@@ -173,16 +266,78 @@ class GameScreen extends ScreenAdapter {
     Output: Void
     Purpose: Turns on and off the debug mode
     */
-    private void setDebugMode() { if(Gdx.input.isKeyJustPressed(Input.Keys.NUM_1)){debugMode = !debugMode;} }
+    private void setDebugMode() { if(Gdx.input.isKeyJustPressed(Input.Keys.NUM_1)){debugOverlay.toggle();} }
+
+    /*
+    Input: Void
+    Output: Void
+    Purpose: Turns on and off the profiler summary and writes it out to a file
+    */
+    private void setProfilerMode() {
+        if(Gdx.input.isKeyJustPressed(Input.Keys.NUM_2)){ profiler.toggleOverlay(); }
+        if(Gdx.input.isKeyJustPressed(Input.Keys.NUM_3)){ profiler.dump(Gdx.files.local(PROFILE_FILE)); }
+    }
 
     /*
     Input: Void
     Output: Void
-    Purpose: Creates a new flower and adds it to the array
+    Purpose: Turns the autopilot on and off, it stays off if there is no controller file to load
+    */
+    private void setAutopilotMode() {
+        if(!Gdx.input.isKeyJustPressed(Input.Keys.NUM_4)){ return; }
+        if(autopilot == null) { autopilot = loadAutopilot(Gdx.files.local(CONTROLLER_FILE)); }
+        autopilotMode = autopilot != null && !autopilotMode;
+    }
+
+    /*
+    Input: File written by the trainer
+    Output: Controller, or null if it could not be read
+    Purpose: Loads the autopilot
+    */
+    private BeeController loadAutopilot(FileHandle file) {
+        if(!file.exists()) {
+            Gdx.app.log("Autopilot", "No controller at " + file.path() + ", run the desktop train task first");
+            return null;
+        }
+        InputStream stream = file.read();
+        try { return BeeController.read(stream); }
+        catch (IOException exception) {
+            Gdx.app.error("Autopilot", "Could not read " + file.path(), exception);
+            return null;
+        }
+        finally { StreamUtils.closeQuietly(stream); }
+    }
+
+    /*
+    Input: Void
+    Output: Boolean
+    Purpose: Shows the autopilot the first flower that flappee hasn't fully passed, the same thing the
+    trainer showed it, and tells us if it wants to fly up this step
+    */
+    private boolean askAutopilot() {
+        float flowerDistance = WORLD_WIDTH;
+        float gapCenter = WORLD_HEIGHT / 2;
+        for (int i = 0; i < flowers.size(); i++) {
+            Flower flower = flowers.get(i);
+            if(flower.getMaxX() >= flappee.getX() - flappee.getRadius()) {
+                flowerDistance = flower.getX() - flappee.getX();
+                gapCenter = flower.getGapCenter();
+                break;
+            }
+        }
+        return autopilot.shouldFly(flappee.getY(), flappee.getYSpeed(), flowerDistance, gapCenter);
+    }
+
+    /*
+    Input: Void
+    Output: Void
+    Purpose: Takes a flower from the pool, gives it the height of the next flower of the course and adds
+    it to the end of the queue
     */
     private void createNewFlower(){
-        Flower newFlower = new Flower(topTower, bottomTower);
-        newFlower.setPosition(WORLD_WIDTH + newFlower.getWidth());
+        Flower newFlower = flowerPool.obtain();
+        newFlower.setFloorY(course.getFloorY(nextFlower++));
+        newFlower.teleport(WORLD_WIDTH + newFlower.getWidth());
         flowers.add(newFlower);
     }
 
@@ -193,25 +348,25 @@ class GameScreen extends ScreenAdapter {
     */
     private void checkIfNewFlowerIsNeeded(){
         //If no flower exits
-        if(flowers.size == 0){
+        if(flowers.size() == 0){
             createNewFlower();
         }
-        //If flowers are GAP_BETWEEN_FLOWERS apart
+        //If the last flower has moved its spacing from the course
         else{
             Flower flower = flowers.peek();
-            if(flower.getX() < WORLD_WIDTH - GAP_BETWEEN_FLOWERS){ createNewFlower(); }
+            if(flower.getX() < WORLD_WIDTH - course.getSpacing(nextFlower - 1)){ createNewFlower(); }
         }
     }
 
     /*
     Input: Void
     Output: Void
-    Purpose: Removes flower from array if its off the screen
+    Purpose: Removes flower from the queue if its off the screen and gives it back to the pool
     */
     private void removeFlowerIfPassed(){
-        if(flowers.size > 0){																					//Checks if we have more than 0 flowers
+        if(flowers.size() > 0){																				//Checks if we have more than 0 flowers
             Flower firstFlower = flowers.first();																//Grabs the first flower
-            if(firstFlower.getX() < - firstFlower.getWidth()){ flowers.removeValue(firstFlower,true); }	//If x is off screen remove from array
+            if(firstFlower.getX() < - firstFlower.getWidth()){ flowerPool.free(flowers.removeFirst()); }	//If x is off screen remove from queue
         }
     }
 
@@ -222,7 +377,10 @@ class GameScreen extends ScreenAdapter {
     */
     private void updateFlappee(float delta){
         flappee.update(delta);
-        if(Gdx.input.isKeyJustPressed(Input.Keys.SPACE)) {flappee.flyUp();}
+        if(flyRequested) {
+            flappee.flyUp(delta);
+            flyRequested = false;
+        }
         blockFLappeeLeavingTheWorld();
     }
 
@@ -231,7 +389,7 @@ class GameScreen extends ScreenAdapter {
     Output: Void
     Purpose: Goes through each flower in the array and updates the position
     */
-    private void updateFlowers(float delta){ for(Flower flower : flowers){ flower.update(delta); } }
+    private void updateFlowers(float delta){ for(int i = 0; i < flowers.size(); i++){ flowers.get(i).update(delta); } }
 
     /*
     Input: Void
@@ -260,21 +418,32 @@ class GameScreen extends ScreenAdapter {
     /*
     Input: Void
     Output: Void
-    Purpose: Sets flappee at start of screen, clears all flowers from scree nad resets score to zero
+    Purpose: Sets flappee at start of screen, clears all flowers from scree nad resets score to zero, the
+    course starts over from its first flower
     */
     private void restart(){
-        flappee.setPosition(WORLD_WIDTH/4,WORLD_HEIGHT/2);
-        flowers.clear();
+        flappee.teleport(WORLD_WIDTH/4,WORLD_HEIGHT/2);
+        while (flowers.size() > 0) { flowerPool.free(flowers.removeFirst()); }
+        if(!fixedCourse) { course.reset(MathUtils.random.nextLong()); }
+        nextFlower = 0;
         score = 0;
     }
 
     /*
     Input: Void
     Output: Void
-    Purpose: Checks if flappe hit any of the flowers
+    Purpose: Checks if flappe hit any of the flowers. The queue is in x order so the flowers fully to the
+    left of flappee are skipped and the search stops at the first one fully to the right, only the one or
+    two flowers that overlap flappee in x get the full shape tests
     */
     private boolean checkForCollision(){
-        for (Flower flower : flowers){
+        float minX = flappee.getX() - flappee.getRadius();
+        float maxX = flappee.getX() + flappee.getRadius();
+        for (int i = 0; i < flowers.size(); i++){
+            Flower flower = flowers.get(i);
+            if(flower.getMaxX() < minX){ continue; }    //Already passed
+            if(flower.getMinX() > maxX){ break; }       //This one and all after it are still ahead
+            profiler.addCount(FrameProfiler.NARROW_PHASE_TESTS, Flower.NARROW_PHASE_TESTS);
             if(flower.isFlappeeColliding(flappee)){return true;}
         }
         return false;
@@ -283,9 +452,10 @@ class GameScreen extends ScreenAdapter {
     /*
     Input: Void
     Output: Void
-    Purpose: Main function that draws everything
+    Purpose: Main function that draws everything, alpha is how far the frame is between the last step and
+    the next one
     */
-    private void draw() {
+    private void draw(float alpha) {
         //Restart the count to be 0 each time
         batch.totalRenderCalls = 0;
         //Viewport/Camera projection
@@ -294,12 +464,11 @@ class GameScreen extends ScreenAdapter {
         //Batch setting up texture
         batch.begin();
         batch.draw(background, 0 ,0);
-        flappee.draw(batch);
-        drawFlower();
+        flappee.draw(batch, alpha);
+        drawFlower(alpha);
         drawScore();
+        profiler.drawOverlay(batch, profilerFont, 5, WORLD_HEIGHT - 5);
         batch.end();
-        //Checks how much memory we take up with these images
-        Gdx.app.log("Debug", "" + batch.totalRenderCalls);
     }
 
     /*
@@ -307,23 +476,22 @@ class GameScreen extends ScreenAdapter {
     Output: Void
     Purpose: Goes through the flower array and draws all of them
     */
-    private void drawFlower(){
-        for(Flower flower : flowers){
-            flower.draw(batch);
+    private void drawFlower(float alpha){
+        for(int i = 0; i < flowers.size(); i++){
+            flowers.get(i).draw(batch, alpha);
         }
     }
 
     /*
     Input: Void
     Output: Void
-    Purpose: Draws the text that shows the score
+    Purpose: Draws the text that shows the score, the layout is only redone when the score changes
     */
     private void drawScore(){
-        String scoreAsString = Integer.toString(score);
-        glyphLayout.setText(bitmapFont, scoreAsString);
-        bitmapFont.draw(batch, scoreAsString,
-                viewport.getWorldWidth()/2 - glyphLayout.width/2,
-                (4*viewport.getWorldHeight()/ 5) - glyphLayout.height/2);
+        scoreText.setValue(score);
+        scoreText.draw(batch,
+                viewport.getWorldWidth()/2 - scoreText.getWidth()/2,
+                (4*viewport.getWorldHeight()/ 5) - scoreText.getHeight()/2);
     }
 
 
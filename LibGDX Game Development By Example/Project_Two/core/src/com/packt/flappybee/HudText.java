@@ -0,0 +1,62 @@
+package com.packt.flappybee;
+
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.GlyphLayout;
+import com.badlogic.gdx.utils.StringBuilder;
+
+/*
+Input: Void
+Output: Void
+Purpose: A line of HUD text made of a fixed prefix and a number, like the score. The number is written
+into a reused char buffer and the GlyphLayout is only laid out again when the number changes, so drawing
+it every frame creates no garbage
+*/
+class HudText {
+
+    private final BitmapFont font;
+    private final String prefix;
+    private final StringBuilder text = new StringBuilder(32);  //Reused buffer, never turned into a String
+    private final GlyphLayout layout = new GlyphLayout();
+    private int value;
+    private boolean laidOut = false;
+
+    /*
+    Input: Font, Text shown before the number
+    Output: Void
+    Purpose: Sets up the text, nothing is laid out until the first setValue
+    */
+    HudText(BitmapFont font, String prefix) {
+        this.font = font;
+        this.prefix = prefix;
+    }
+
+    /*
+    Input: Number to show
+    Output: Void
+    Purpose: Rebuilds the text and the layout only if the number is different from the one shown
+    */
+    void setValue(int value) {
+        if (laidOut && value == this.value) { return; }
+        this.value = value;
+        text.setLength(0);
+        text.append(prefix).append(value);
+        layout.setText(font, text);
+        laidOut = true;
+    }
+
+    /*
+    Input: Void
+    Output: Size of the laid out text
+    Purpose: Used to position the text before drawing it
+    */
+    float getWidth() { return layout.width; }
+    float getHeight() { return layout.height; }
+
+    /*
+    Input: Batch, Position of the top left corner of the text
+    Output: Void
+    Purpose: Draws the cached layout, must be called between batch begin and end
+    */
+    void draw(Batch batch, float x, float y) { font.draw(batch, layout, x, y); }
+}
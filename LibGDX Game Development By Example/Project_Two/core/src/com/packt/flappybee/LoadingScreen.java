@@ -64,11 +64,13 @@ public class LoadingScreen extends ScreenAdapter{
         //Set up wire frame
         shapeRenderer = new ShapeRenderer();
 
-        //Loads all the images from the big image
-        flappeeBeeGame.getAssetManager().load("flappy_bee_assets.atlas", TextureAtlas.class);
+        //Loads all the images from the big image, it is already in memory if the start screen was shown
+        if (!flappeeBeeGame.getAssetManager().isLoaded(FlappyBeeGame.ATLAS)) {
+            flappeeBeeGame.getAssetManager().load(FlappyBeeGame.ATLAS, TextureAtlas.class);
+        }
         //Sets up the font
         BitmapFontLoader.BitmapFontParameter bitmapFontParameter = new BitmapFontLoader.BitmapFontParameter();
-        bitmapFontParameter.atlasName = "flappy_bee_assets.atlas";
+        bitmapFontParameter.atlasName = FlappyBeeGame.ATLAS;
         //Adds font to manager
         flappeeBeeGame.getAssetManager().load("font.fnt", BitmapFont.class, bitmapFontParameter);
     }
@@ -3,8 +3,7 @@ package com.packt.flappybee;
 import com.badlogic.gdx.Game;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.ScreenAdapter;
-import com.badlogic.gdx.graphics.Texture;
-import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
 import com.badlogic.gdx.scenes.scene2d.InputEvent;
 import com.badlogic.gdx.scenes.scene2d.Stage;
 import com.badlogic.gdx.scenes.scene2d.ui.Image;
@@ -22,12 +21,6 @@ class StartScreen extends ScreenAdapter {
     //Stage that the buttons are on
     private Stage stage;
 
-    //Textures
-    private Texture backgroundTexture;
-    private Texture playUpTexture;
-    private Texture playDownTexture;
-    private Texture titleTexture;
-
     //Game set up
     private final FlappyBeeGame game;
     StartScreen(FlappyBeeGame game) { this.game = game; }
@@ -35,23 +28,24 @@ class StartScreen extends ScreenAdapter {
     /*
     Input: Void
     Output: Void
-    Purpose: Sets up the screen and buttons
+    Purpose: Sets up the screen and buttons, every image comes from the atlas the game loaded so the whole
+    stage is drawn from one texture
     */
     public void show(){
         //Set up the stage and give it the input processing
         stage = new Stage(new FitViewport(WORLD_WIDTH,WORLD_HEIGHT));
         Gdx.input.setInputProcessor(stage);
 
+        //The packed texture that the game screen uses as well
+        TextureAtlas textureAtlas = game.getAssetManager().get(FlappyBeeGame.ATLAS);
+
         //Set up the background image and add it to the stage
-        backgroundTexture = new Texture(Gdx.files.internal("Space.png"));
-        Image background = new Image(backgroundTexture);
+        Image background = new Image(textureAtlas.findRegion("Space"));
         stage.addActor(background);
 
         //Set up the Button and add it to the stage
-        playDownTexture = new Texture(Gdx.files.internal("PlayDown.png"));
-        playUpTexture = new Texture(Gdx.files.internal("PlayUp.png"));
-        ImageButton play = new ImageButton(new TextureRegionDrawable(new TextureRegion(playUpTexture)),
-                new TextureRegionDrawable(playDownTexture));
+        ImageButton play = new ImageButton(new TextureRegionDrawable(textureAtlas.findRegion("PlayUp")),
+                new TextureRegionDrawable(textureAtlas.findRegion("PlayDown")));
         play.setPosition(WORLD_WIDTH/2, WORLD_HEIGHT/4, Align.center);
         stage.addActor(play);
 
@@ -66,8 +60,7 @@ class StartScreen extends ScreenAdapter {
         });
 
         //Give the button click ability that starts the game
-        titleTexture = new Texture(Gdx.files.internal("Title.png"));
-        Image title = new Image(titleTexture);
+        Image title = new Image(textureAtlas.findRegion("Title"));
         title.setPosition(WORLD_WIDTH/2, 3*WORLD_HEIGHT/4,Align.center);
         stage.addActor(title);
     }
@@ -93,14 +86,10 @@ class StartScreen extends ScreenAdapter {
     /*
     Input: Void
     Output: Void
-    Purpose: Gets rid of textures and stages
+    Purpose: Gets rid of the stage, the atlas belongs to the asset manager and stays loaded for the game
     */
     @Override
     public void dispose() {
         stage.dispose();
-        backgroundTexture.dispose();
-        playUpTexture.dispose();
-        playDownTexture.dispose();
-        titleTexture.dispose();
     }
 }
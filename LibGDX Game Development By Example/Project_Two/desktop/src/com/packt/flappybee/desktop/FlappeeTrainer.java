@@ -0,0 +1,232 @@
+package com.packt.flappybee.desktop;
+
+import com.badlogic.gdx.math.RandomXS128;
+import com.packt.flappybee.BeeController;
+import com.packt.flappybee.BeeSwarm;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CyclicBarrier;
+
+/*
+Input: Options as name=value pairs, all optional
+    bees=4096 generations=200 seconds=120 elite=0.05 mutation=0.2 seed=1 threads=<cores> out=flappee_controller.bin
+Output: Void
+Purpose: Trains the autopilot with no window. A whole population of bees flies through the same flowers,
+every step the population is split into one slice per thread and the threads step their slices together.
+After every generation the bees that flew the longest are kept and the rest are replaced by mutated copies
+of them, and everyone flies a new set of flowers. Prints generations per second and writes the best
+controller found to the out file, which the game loads when 4 is pressed
+*/
+public class FlappeeTrainer {
+
+    private static final int STEPS_PER_SECOND = 60;
+
+    private final Settings settings;
+    private final BeeSwarm swarm;
+    private final RandomXS128 random;
+    private final float[] nextWeights;
+    private final long[] ranking;        //Fitness in the high bits and the bee in the low bits, sorted
+    private final int[] sliceStart;
+    private final int[] sliceAlive;
+
+    /*
+    Best controller over all generations
+     */
+    private final float[] bestWeights = new float[BeeController.WEIGHT_COUNT];
+    private float bestFitness = -1;
+    private int bestScore = 0;
+
+    /*
+    Run state, only changed by the barrier action while every worker waits
+     */
+    private int generation = 0;
+    private long beeSteps = 0;
+    private volatile boolean finished = false;
+
+    public static void main(String[] arg) throws Exception {
+        Settings settings = new Settings(arg);
+        FlappeeTrainer trainer = new FlappeeTrainer(settings);
+
+        long start = System.nanoTime();
+        trainer.train();
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("%d generations of %d bees on %d threads in %.3f s, %.2f generations per second, %.0f bee steps per second%n",
+                settings.generations, settings.bees, settings.threads, seconds, settings.generations / seconds,
+                trainer.beeSteps / seconds);
+        System.out.printf("Best bee flew %.1f s and passed %d flowers%n", trainer.bestFitness / STEPS_PER_SECOND, trainer.bestScore);
+        trainer.writeBest(settings.out);
+        System.out.println("Controller written to " + settings.out);
+    }
+
+    /*
+    Input: Settings
+    Output: Void
+    Purpose: Creates the population with random weights and splits it into slices
+    */
+    private FlappeeTrainer(Settings settings) {
+        this.settings = settings;
+        swarm = new BeeSwarm(settings.bees);
+        random = new RandomXS128(settings.seed);
+        nextWeights = new float[settings.bees * BeeController.WEIGHT_COUNT];
+        ranking = new long[settings.bees];
+        sliceStart = new int[settings.threads + 1];
+        sliceAlive = new int[settings.threads];
+        for (int slice = 0; slice <= settings.threads; slice++) {
+            sliceStart[slice] = (int) ((long) settings.bees * slice / settings.threads);
+        }
+        float[] weights = swarm.getWeights();
+        for (int i = 0; i < weights.length; i++) { weights[i] = (float) random.nextGaussian(); }
+    }
+
+    /*
+    Input: Void
+    Output: Void
+    Purpose: Runs every generation. Each worker steps its slice and waits at the barrier, the last one to
+    arrive runs nextStep which moves the flowers or ends the generation before they all go again
+    */
+    private void train() throws InterruptedException {
+        swarm.reset(random.nextLong());
+        final CyclicBarrier barrier = new CyclicBarrier(settings.threads, new Runnable() {
+            @Override
+            public void run() { nextStep(); }
+        });
+        Thread[] workers = new Thread[settings.threads];
+        for (int slice = 0; slice < settings.threads; slice++) {
+            final int from = sliceStart[slice];
+            final int to = sliceStart[slice + 1];
+            final int index = slice;
+            workers[slice] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        while (true) {
+                            barrier.await();
+                            if (finished) { return; }
+                            sliceAlive[index] = swarm.stepBees(from, to);
+                        }
+                    }
+                    catch (InterruptedException | BrokenBarrierException exception) {
+                        throw new IllegalStateException("Trainer worker stopped", exception);
+                    }
+                }
+            }, "trainer-" + slice);
+            workers[slice].start();
+        }
+        for (Thread worker : workers) { worker.join(); }
+    }
+
+    /*
+    Input: Void
+    Output: Void
+    Purpose: Runs between steps on one thread. When every bee is dead or the time is up the generation
+    ends, then the flowers are moved for the next step. Before the first step there is nothing to count
+    */
+    private void nextStep() {
+        int living = 0;
+        for (int alive : sliceAlive) { living += alive; }
+        beeSteps += living;
+        if (swarm.getSteps() > 0 && (living == 0 || swarm.getSteps() >= settings.seconds * STEPS_PER_SECOND)) {
+            endGeneration();
+            if (++generation >= settings.generations) {
+                finished = true;
+                return;
+            }
+            swarm.reset(random.nextLong());
+        }
+        swarm.advanceFlowers();
+    }
+
+    /*
+    Input: Void
+    Output: Void
+    Purpose: Ranks the bees, remembers the best one, prints the generation and breeds the next one. The
+    elite keep their weights, every other bee gets the weights of a random elite with gaussian noise added
+    */
+    private void endGeneration() {
+        float[] weights = swarm.getWeights();
+        int size = swarm.getSize();
+        double totalFitness = 0;
+        for (int bee = 0; bee < size; bee++) {
+            //Fitness is a whole number of steps so it sorts correctly as a long
+            ranking[bee] = ((long) swarm.getFitness(bee) << 32) | bee;
+            totalFitness += swarm.getFitness(bee);
+        }
+        Arrays.sort(ranking);
+
+        int best = (int) ranking[size - 1];
+        if (swarm.getFitness(best) > bestFitness) {
+            bestFitness = swarm.getFitness(best);
+            bestScore = swarm.getScore(best);
+            System.arraycopy(weights, best * BeeController.WEIGHT_COUNT, bestWeights, 0, BeeController.WEIGHT_COUNT);
+        }
+        System.out.printf("Generation %d, best %.1f s and %d flowers, average %.1f s%n", generation + 1,
+                swarm.getFitness(best) / STEPS_PER_SECOND, swarm.getScore(best), totalFitness / size / STEPS_PER_SECOND);
+
+        int elite = Math.max(1, (int) (size * settings.elite));
+        for (int bee = 0; bee < size; bee++) {
+            int parent = (int) ranking[size - 1 - (bee < elite ? bee : random.nextInt(elite))];
+            int to = bee * BeeController.WEIGHT_COUNT;
+            System.arraycopy(weights, parent * BeeController.WEIGHT_COUNT, nextWeights, to, BeeController.WEIGHT_COUNT);
+            if (bee < elite) { continue; }
+            for (int i = to; i < to + BeeController.WEIGHT_COUNT; i++) {
+                nextWeights[i] += (float) random.nextGaussian() * settings.mutation;
+            }
+        }
+        System.arraycopy(nextWeights, 0, weights, 0, weights.length);
+    }
+
+    /*
+    Input: File name
+    Output: Void
+    Purpose: Writes the best controller out
+    */
+    private void writeBest(String file) throws IOException {
+        OutputStream stream = new FileOutputStream(file);
+        try { new BeeController(bestWeights).write(stream); }
+        finally { stream.close(); }
+    }
+
+    /*
+    Input: Void
+    Output: Void
+    Purpose: Parses the command line options and rejects the ones the trainer can't run with
+    */
+    private static class Settings {
+        int bees = 4096;
+        int generations = 200;
+        int seconds = 120;
+        float elite = 0.05f;
+        float mutation = 0.2f;
+        long seed = 1;
+        int threads = Runtime.getRuntime().availableProcessors();
+        String out = "flappee_controller.bin";
+
+        Settings(String[] arg) {
+            for (String option : arg) {
+                String[] pair = option.split("=", 2);
+                if (pair.length != 2) { throw new IllegalArgumentException("Expected name=value but got " + option); }
+                switch (pair[0]) {
+                    case "bees": bees = Integer.parseInt(pair[1]); break;
+                    case "generations": generations = Integer.parseInt(pair[1]); break;
+                    case "seconds": seconds = Integer.parseInt(pair[1]); break;
+                    case "elite": elite = Float.parseFloat(pair[1]); break;
+                    case "mutation": mutation = Float.parseFloat(pair[1]); break;
+                    case "seed": seed = Long.parseLong(pair[1]); break;
+                    case "threads": threads = Integer.parseInt(pair[1]); break;
+                    case "out": out = pair[1]; break;
+                    default: throw new IllegalArgumentException("Unknown option " + pair[0]);
+                }
+            }
+            if (bees < 1) { throw new IllegalArgumentException("bees has to be at least 1 but got " + bees); }
+            if (generations < 1) { throw new IllegalArgumentException("generations has to be at least 1 but got " + generations); }
+            if (seconds < 1) { throw new IllegalArgumentException("seconds has to be at least 1 but got " + seconds); }
+            if (!(elite > 0 && elite <= 1)) { throw new IllegalArgumentException("elite has to be over 0 and at most 1 but got " + elite); }
+            threads = Math.max(1, Math.min(threads, bees));
+        }
+    }
+}